@@ -0,0 +1,26 @@
+package com.example.common;
+
+import java.util.List;
+
+import jakarta.annotation.Nullable;
+
+/**
+ * 基于游标（keyset）分页的查询结果。
+ * <p>
+ * 与 {@link org.springframework.data.domain.Page} 不同，游标分页不做 OFFSET 跳过，也不统计总数，
+ * 而是通过 {@link #nextCursor()} 定位下一页的起点，因此翻到多深的位置查询开销都一样。
+ *
+ * @param content    当前页数据
+ * @param size       请求的每页大小
+ * @param nextCursor 下一页的游标，没有更多数据时为 {@code null}
+ * @param <T>        数据类型
+ */
+public record CursorSlice<T>(List<T> content, int size, @Nullable String nextCursor) {
+
+    /**
+     * 是否还有下一页
+     */
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+}
@@ -7,6 +7,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.autoconfigure.web.servlet.error.BasicErrorController;
 import org.springframework.core.MethodParameter;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageConverter;
@@ -85,6 +86,24 @@ public class GlobalResponseBodyAdvice implements ResponseBodyAdvice<Object> {
 
             return ApiResponse.success(paging.getContent(), Map.of("pagination", pagination));
         }
+        // 如果返回值是不含总数的 Slice 类型，则只返回是否有下一页。
+        if (body instanceof Slice<?> slice) {
+            Map<String, Object> pagination = new HashMap<>();
+            pagination.put("page", slice.getNumber());
+            pagination.put("pageSize", slice.getSize());
+            pagination.put("hasNext", slice.hasNext());
+
+            return ApiResponse.success(slice.getContent(), Map.of("pagination", pagination));
+        }
+        // 如果返回值是 CursorSlice 类型，则在分页信息中返回下一页游标。
+        if (body instanceof CursorSlice<?> slice) {
+            Map<String, Object> pagination = new HashMap<>();
+            pagination.put("pageSize", slice.size());
+            pagination.put("hasNext", slice.hasNext());
+            pagination.put("nextCursor", slice.nextCursor());
+
+            return ApiResponse.success(slice.content(), Map.of("pagination", pagination));
+        }
         // 如果方法上有 @JsonView 注解，则根据查询字符串中的 view 参数的值，动态设置序列化视图。
         JsonView jsonView = returnType.getMethodAnnotation(JsonView.class);
         if (jsonView != null) {
@@ -0,0 +1,100 @@
+package com.example.common.archive;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.Nullable;
+import lombok.Data;
+
+/**
+ * 软删除数据归档配置
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.archive")
+public class ArchiveProperties {
+
+    /**
+     * 是否开启归档任务
+     */
+    private boolean enabled = false;
+
+    /**
+     * 应用启动后首次执行的延迟
+     */
+    private Duration initialDelay = Duration.ofMinutes(5);
+
+    /**
+     * 两轮归档之间的间隔（从上一轮结束开始计算）
+     */
+    private Duration interval = Duration.ofHours(1);
+
+    /**
+     * 每个分块扫描的主键数，实体未单独配置时使用
+     */
+    private int chunkSize = 500;
+
+    /**
+     * 每个分块执行后的暂停时间，控制写入和复制的速率
+     */
+    private Duration pause = Duration.ofMillis(200);
+
+    /**
+     * 副本复制延迟过大时的等待时间，等待后重新检查（仅在启用读写分离时生效）
+     */
+    private Duration replicaLagBackoff = Duration.ofSeconds(10);
+
+    /**
+     * 副本持续不可用超过该时间时放弃本轮归档并记录警告，下一轮再继续（仅在启用读写分离时生效）
+     */
+    private Duration replicaLagMaxWait = Duration.ofMinutes(30);
+
+    /**
+     * 每个实体每轮最多执行的分块数，未完成的部分留到下一轮，从上次扫描到的主键继续
+     */
+    private int maxChunksPerRun = 1_000;
+
+    /**
+     * 按实体名（如 User）配置的归档规则，只有配置了的实体才会归档
+     */
+    private Map<String, EntityArchive> entities = new LinkedHashMap<>();
+
+    /**
+     * 单个实体的归档规则
+     */
+    @Data
+    public static class EntityArchive {
+
+        /**
+         * 是否归档该实体
+         */
+        private boolean enabled = true;
+
+        /**
+         * 软删除超过该时间的行移入归档表
+         */
+        private Duration retention = Duration.ofDays(90);
+
+        /**
+         * 归档表名，默认为「表名_archive」
+         */
+        @Nullable
+        private String archiveTable;
+
+        /**
+         * 归档表中的数据保留时间，超过后彻底删除；为空时永久保留
+         */
+        @Nullable
+        private Duration archiveRetention;
+
+        /**
+         * 每个分块扫描的主键数，为空时使用全局配置
+         */
+        @Nullable
+        private Integer chunkSize;
+    }
+}
@@ -0,0 +1,348 @@
+package com.example.common.archive;
+
+import java.sql.ResultSetMetaData;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.Assert;
+
+import com.example.common.datasource.ReplicaLagMonitor;
+import com.example.domain.base.SoftDeletableEntity;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.Nullable;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 软删除数据归档任务
+ * <p>
+ * 软删除的行会一直留在原表中，表和索引持续膨胀，所有查询也都要带上 {@code deleted = false} 过滤。
+ * 该任务定期把软删除超过 {@code retention} 的行移到归档表（结构与原表相同，多出 {@code archived_at} 列），
+ * 配置了 {@code archive-retention} 时再清除归档表中的过期数据。
+ * <ul>
+ * <li>按主键顺序分块：先在主键索引上取出下一段主键范围，再在范围内找出需要归档的行，
+ * 每个分块在一个短事务中加锁复核、复制到归档表并删除，锁只落在被归档的行上</li>
+ * <li>每轮最多执行 {@code max-chunks-per-run} 个分块，下一轮从上次扫描到的主键继续，扫描到表尾后再从头开始</li>
+ * <li>每个分块后暂停 {@code pause}；启用读写分离时副本不可用或复制延迟过大则暂停，等待副本追上，
+ * 超过 {@code replica-lag-max-wait} 仍未追上时放弃本轮</li>
+ * <li>多个实例同时执行时，加锁复核保证同一行只会被归档一次</li>
+ * </ul>
+ * 主键需为整数类型。暴露以下指标（按 entity 区分）：
+ * <ul>
+ * <li>{@code archive.rows} - 已归档的行数</li>
+ * <li>{@code archive.purged} - 从归档表清除的行数</li>
+ * <li>{@code archive.chunk} - 单个分块的执行耗时</li>
+ * <li>{@code archive.throttled} - 因副本延迟暂停的次数</li>
+ * <li>{@code archive.cursor} - 当前一遍扫描已到达的主键位置，从头开始时为 0</li>
+ * <li>{@code archive.last_completed} - 最近一次扫描到表尾的时间（epoch 秒）</li>
+ * </ul>
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "app.archive", name = "enabled", havingValue = "true")
+public class SoftDeleteArchiver {
+
+    private static final String ARCHIVED_AT = "archived_at";
+
+    /**
+     * 扫描起点，小于任何主键
+     */
+    private static final long CURSOR_START = Long.MIN_VALUE;
+
+    private final ArchiveProperties properties;
+    private final SessionFactoryImplementor sessionFactory;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    @Nullable
+    private final ReplicaLagMonitor replicaLagMonitor;
+    private final ScheduledExecutorService scheduler;
+    private final List<Target> targets = new ArrayList<>();
+
+    private volatile boolean stopped;
+
+    public SoftDeleteArchiver(ArchiveProperties properties, EntityManagerFactory entityManagerFactory, JdbcTemplate jdbcTemplate,
+                              PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+                              ObjectProvider<ReplicaLagMonitor> replicaLagMonitor) {
+        this.properties = properties;
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        this.replicaLagMonitor = replicaLagMonitor.getIfAvailable();
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "soft-delete-archiver");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PostConstruct
+    public void start() {
+        properties.getEntities().forEach((entityName, config) -> {
+            if (config.isEnabled()) {
+                targets.add(createTarget(entityName, config));
+            }
+        });
+        if (targets.isEmpty()) {
+            log.info("未配置需要归档的实体，归档任务不启动");
+            return;
+        }
+        scheduler.scheduleWithFixedDelay(this::run, properties.getInitialDelay().toMillis(),
+                properties.getInterval().toMillis(), TimeUnit.MILLISECONDS);
+        log.info("软删除归档任务已启动 - entities: {}, interval: {}",
+                targets.stream().map(Target::entityName).toList(), properties.getInterval());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        stopped = true;
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * 执行一轮归档，由定时任务调用
+     */
+    void run() {
+        for (Target target : targets) {
+            if (stopped) {
+                return;
+            }
+            try {
+                if (archive(target)) {
+                    target.lastCompleted().set(Instant.now().getEpochSecond());
+                }
+                purge(target);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ReplicaUnavailableException e) {
+                log.warn("副本持续不可用超过 {}，放弃本轮归档 - {}", properties.getReplicaLagMaxWait(), target.entityName());
+            } catch (Exception e) {
+                // 单个实体失败不影响其他实体，下一轮从已完成的分块之后继续
+                log.error("归档失败 - {}", target.entityName(), e);
+            }
+        }
+    }
+
+    /**
+     * 从上次扫描到的主键开始，把软删除超过保留期的行按主键顺序分块移入归档表
+     *
+     * @return 本轮是否扫描到了表尾
+     */
+    private boolean archive(Target target) throws InterruptedException {
+        LocalDateTime cutoff = LocalDateTime.now().minus(target.retention());
+        String columns = String.join(", ", sourceColumns(target.table()));
+        String id = target.idColumn();
+        String nextRange = "SELECT MAX(" + id + ") FROM (SELECT " + id + " FROM " + target.table()
+                + " WHERE " + id + " > ? ORDER BY " + id + " LIMIT ?) chunk";
+
+        long start = System.currentTimeMillis();
+        long cursor = target.cursor().get();
+        long archived = 0;
+        int chunks = 0;
+        boolean reachedEnd = false;
+        while (!stopped && chunks < properties.getMaxChunksPerRun()) {
+            awaitReplica(target);
+            Long upper = jdbcTemplate.queryForObject(nextRange, Long.class, cursor, target.chunkSize());
+            if (upper == null) {
+                // 扫描到表尾，下一轮从头开始
+                target.cursor().set(CURSOR_START);
+                reachedEnd = true;
+                break;
+            }
+            Timer.Sample sample = Timer.start();
+            archived += archiveChunk(target, columns, cursor, upper, cutoff);
+            sample.stop(target.chunkTimer());
+            cursor = upper;
+            target.cursor().set(upper);
+            chunks++;
+            sleep(properties.getPause());
+        }
+        if (archived > 0) {
+            log.info("成功归档 {} 行软删除数据 - {}, chunks: {}, 耗时 {} ms", archived, target.entityName(), chunks,
+                    System.currentTimeMillis() - start);
+        }
+        if (!reachedEnd) {
+            log.debug("本轮归档达到分块上限，下一轮从主键 {} 之后继续 - {}", cursor, target.entityName());
+        }
+        return reachedEnd;
+    }
+
+    /**
+     * 归档主键在 {@code (from, to]} 范围内满足条件的行
+     *
+     * @return 归档的行数
+     */
+    private int archiveChunk(Target target, String columns, long from, long to, LocalDateTime cutoff) {
+        String id = target.idColumn();
+        String condition = target.deletedColumn() + " = TRUE AND " + target.deletedAtColumn() + " < ?";
+        // 先不加锁地找出候选行，避免锁住范围内的正常数据
+        List<Long> candidates = jdbcTemplate.queryForList(
+                "SELECT " + id + " FROM " + target.table() + " WHERE " + id + " > ? AND " + id + " <= ? AND " + condition,
+                Long.class, from, to, cutoff);
+        if (candidates.isEmpty()) {
+            return 0;
+        }
+
+        Integer archived = transactionTemplate.execute(status -> {
+            // 加锁复核：期间被恢复或已被其他实例归档的行不再处理
+            List<Object> lockArgs = new ArrayList<>(candidates);
+            lockArgs.add(cutoff);
+            List<Long> ids = jdbcTemplate.queryForList(
+                    "SELECT " + id + " FROM " + target.table() + " WHERE " + id + " IN (" + placeholders(candidates.size())
+                            + ") AND " + condition + " FOR UPDATE", Long.class, lockArgs.toArray());
+            if (ids.isEmpty()) {
+                return 0;
+            }
+
+            String in = placeholders(ids.size());
+            List<Object> insertArgs = new ArrayList<>(ids.size() + 1);
+            insertArgs.add(LocalDateTime.now());
+            insertArgs.addAll(ids);
+            jdbcTemplate.update("INSERT INTO " + target.archiveTable() + " (" + columns + ", " + ARCHIVED_AT + ") SELECT "
+                    + columns + ", ? FROM " + target.table() + " WHERE " + id + " IN (" + in + ")", insertArgs.toArray());
+            return jdbcTemplate.update("DELETE FROM " + target.table() + " WHERE " + id + " IN (" + in + ")", ids.toArray());
+        });
+        int count = archived == null ? 0 : archived;
+        target.rows().increment(count);
+        return count;
+    }
+
+    /**
+     * 按 {@code archive-retention} 分块清除归档表中的过期数据
+     */
+    private void purge(Target target) throws InterruptedException {
+        if (target.archiveRetention() == null) {
+            return;
+        }
+        LocalDateTime cutoff = LocalDateTime.now().minus(target.archiveRetention());
+        String sql = "DELETE FROM " + target.archiveTable() + " WHERE " + ARCHIVED_AT + " < ? ORDER BY " + ARCHIVED_AT + " LIMIT ?";
+        long purged = 0;
+        int affected;
+        do {
+            awaitReplica(target);
+            affected = jdbcTemplate.update(sql, cutoff, target.chunkSize());
+            target.purged().increment(affected);
+            purged += affected;
+            sleep(properties.getPause());
+        } while (!stopped && affected == target.chunkSize());
+        if (purged > 0) {
+            log.info("成功清除 {} 行过期归档数据 - {}", purged, target.archiveTable());
+        }
+    }
+
+    /**
+     * 副本不可用或复制延迟过大时暂停，等待副本追上
+     *
+     * @throws ReplicaUnavailableException 如果等待超过 {@code replica-lag-max-wait}
+     */
+    private void awaitReplica(Target target) throws InterruptedException {
+        long deadline = System.nanoTime() + properties.getReplicaLagMaxWait().toNanos();
+        while (!stopped && replicaLagMonitor != null && !replicaLagMonitor.isAvailable()) {
+            if (System.nanoTime() - deadline >= 0) {
+                throw new ReplicaUnavailableException();
+            }
+            target.throttled().increment();
+            log.debug("副本复制延迟过大，暂停归档 {} - {}", properties.getReplicaLagBackoff(), target.entityName());
+            sleep(properties.getReplicaLagBackoff());
+        }
+    }
+
+    /**
+     * 原表当前的列，每轮重新读取，跟随迁移脚本的变化；归档表需同步添加相同的列
+     */
+    private List<String> sourceColumns(String table) {
+        return jdbcTemplate.query("SELECT * FROM " + table + " WHERE 1 = 0", rs -> {
+            ResultSetMetaData metaData = rs.getMetaData();
+            List<String> columns = new ArrayList<>(metaData.getColumnCount());
+            for (int i = 1; i <= metaData.getColumnCount(); i++) {
+                columns.add(metaData.getColumnName(i));
+            }
+            return columns;
+        });
+    }
+
+    private Target createTarget(String entityName, ArchiveProperties.EntityArchive config) {
+        Class<?> entityClass = sessionFactory.getJpaMetamodel().entity(entityName).getJavaType();
+        Assert.state(SoftDeletableEntity.class.isAssignableFrom(entityClass), () -> "Entity is not soft-deletable: " + entityName);
+        AbstractEntityPersister persister = (AbstractEntityPersister) sessionFactory.getMappingMetamodel().getEntityDescriptor(entityClass);
+        String table = persister.getTableName();
+        int chunkSize = config.getChunkSize() != null ? config.getChunkSize() : properties.getChunkSize();
+        Assert.state(chunkSize > 0, "chunkSize must be greater than 0");
+
+        Target target = new Target(entityName, table,
+                config.getArchiveTable() != null ? config.getArchiveTable() : table + "_archive",
+                persister.getIdentifierColumnNames()[0],
+                persister.getPropertyColumnNames("deleted")[0],
+                persister.getPropertyColumnNames("deletedAt")[0],
+                config.getRetention(), config.getArchiveRetention(), chunkSize,
+                Counter.builder("archive.rows").description("已归档的软删除行数").tag("entity", entityName).register(meterRegistry),
+                Counter.builder("archive.purged").description("从归档表清除的过期行数").tag("entity", entityName).register(meterRegistry),
+                Counter.builder("archive.throttled").description("因副本延迟暂停归档的次数").tag("entity", entityName).register(meterRegistry),
+                Timer.builder("archive.chunk").description("单个归档分块的执行耗时").tag("entity", entityName).register(meterRegistry),
+                new AtomicLong(CURSOR_START), new AtomicLong());
+        Gauge.builder("archive.cursor", target.cursor(), cursor -> cursor.get() == CURSOR_START ? 0 : cursor.get())
+                .description("当前一遍归档扫描已到达的主键位置")
+                .tag("entity", entityName)
+                .register(meterRegistry);
+        Gauge.builder("archive.last_completed", target.lastCompleted(), AtomicLong::get)
+                .description("最近一次归档扫描到表尾的时间（epoch 秒）")
+                .tag("entity", entityName)
+                .register(meterRegistry);
+        log.info("归档规则 - {}: {} -> {}, retention: {}, archiveRetention: {}, chunkSize: {}", entityName, table,
+                target.archiveTable(), target.retention(), target.archiveRetention(), chunkSize);
+        return target;
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+
+    private static void sleep(Duration duration) throws InterruptedException {
+        if (!duration.isZero() && !duration.isNegative()) {
+            TimeUnit.MILLISECONDS.sleep(duration.toMillis());
+        }
+    }
+
+    /**
+     * 副本持续不可用，放弃本轮归档
+     */
+    private static final class ReplicaUnavailableException extends RuntimeException {
+
+        ReplicaUnavailableException() {
+            super(null, null, false, false);
+        }
+    }
+
+    /**
+     * 单个实体的归档目标及其指标，{@code cursor} 在多轮之间保留
+     */
+    private record Target(String entityName, String table, String archiveTable, String idColumn, String deletedColumn,
+                          String deletedAtColumn, Duration retention, @Nullable Duration archiveRetention, int chunkSize,
+                          Counter rows, Counter purged, Counter throttled, Timer chunkTimer,
+                          AtomicLong cursor, AtomicLong lastCompleted) {
+    }
+}
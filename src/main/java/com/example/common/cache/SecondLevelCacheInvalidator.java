@@ -0,0 +1,228 @@
+package com.example.common.cache;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.core.convert.support.DefaultConversionService;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Hibernate 二级缓存的集群失效通知
+ * <p>
+ * 二级缓存是每个实例本地的 Caffeine 缓存，一个实例插入、修改或删除实体后，其他实例的缓存并不知情。
+ * 这里在事务提交后通过 Redis 发布 {@code 实例ID|范围|实体名|ID1,ID2,...} 消息，每条消息最多包含
+ * {@value #MAX_IDS_PER_MESSAGE} 个 ID，其他实例收到后清除对应的实体缓存，范围为 {@code all} 时还会清除
+ * 该实体的自然 ID 缓存以及查询缓存。
+ * <ul>
+ * <li>绕过实体事件的批量语句需调用 {@link #publish(Class, Collection)}</li>
+ * <li>只修改了普通列（既不是自然 ID，也不参与缓存查询的条件）的语句可以调用 {@link #publishEntityData(Class, Collection)}，
+ * 不影响其他实例的自然 ID 缓存和查询缓存</li>
+ * </ul>
+ */
+@Slf4j
+@Component
+public class SecondLevelCacheInvalidator implements MessageListener {
+
+    private static final String CHANNEL = "cache:l2:invalidate";
+    private static final String ALL = "*";
+    private static final String ID_SEPARATOR = ",";
+    private static final int MAX_IDS_PER_MESSAGE = 1000;
+
+    /**
+     * 清除实体、自然 ID 和查询缓存
+     */
+    private static final String SCOPE_ALL = "all";
+    /**
+     * 只清除实体缓存
+     */
+    private static final String SCOPE_ENTITY = "entity";
+
+    private final SessionFactoryImplementor sessionFactory;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final String instanceId = UUID.randomUUID().toString();
+    /**
+     * 发布在独立线程中进行，不受当前线程 Redis 事务（MULTI）和数据库事务阶段的影响
+     */
+    private final ExecutorService publisher = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "l2-cache-invalidation");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public SecondLevelCacheInvalidator(EntityManagerFactory entityManagerFactory, StringRedisTemplate stringRedisTemplate,
+                                       RedisMessageListenerContainer listenerContainer) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.listenerContainer = listenerContainer;
+    }
+
+    @PostConstruct
+    public void init() {
+        EntityChangeListener listener = new EntityChangeListener();
+        EventListenerRegistry registry = sessionFactory.getServiceRegistry().requireService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, listener);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, listener);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, listener);
+        listenerContainer.addMessageListener(this, new ChannelTopic(CHANNEL));
+    }
+
+    /**
+     * 通知其他实例清除指定实体的缓存，在事务中调用时等到事务提交后再发送
+     *
+     * @param entityClass 实体类型
+     * @param ids         实体 ID，为空时清除该实体的全部缓存
+     */
+    public void publish(Class<?> entityClass, Collection<?> ids) {
+        publish(entityClass, ids, SCOPE_ALL);
+    }
+
+    /**
+     * 通知其他实例只清除指定实体的实体缓存，保留自然 ID 缓存和查询缓存，在事务中调用时等到事务提交后再发送。
+     * <p>
+     * 只适用于修改的列既不是自然 ID、也不参与缓存查询条件的语句，如写后队列写入的最近登录时间
+     *
+     * @param entityClass 实体类型
+     * @param ids         实体 ID，为空时清除该实体的全部实体缓存
+     */
+    public void publishEntityData(Class<?> entityClass, Collection<?> ids) {
+        publish(entityClass, ids, SCOPE_ENTITY);
+    }
+
+    private void publish(Class<?> entityClass, Collection<?> ids, String scope) {
+        EntityPersister persister = sessionFactory.getMappingMetamodel().getEntityDescriptor(entityClass);
+        if (!persister.canWriteToCache()) {
+            return;
+        }
+        List<String> snapshot = ids.stream().map(String::valueOf).toList();
+        Runnable action = () -> {
+            if (snapshot.isEmpty()) {
+                publish(scope, persister.getEntityName(), ALL);
+                return;
+            }
+            for (int from = 0; from < snapshot.size(); from += MAX_IDS_PER_MESSAGE) {
+                List<String> batch = snapshot.subList(from, Math.min(from + MAX_IDS_PER_MESSAGE, snapshot.size()));
+                publish(scope, persister.getEntityName(), String.join(ID_SEPARATOR, batch));
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private void publish(String scope, String entityName, String ids) {
+        publisher.execute(() -> {
+            try {
+                stringRedisTemplate.convertAndSend(CHANNEL, instanceId + "|" + scope + "|" + entityName + "|" + ids);
+            } catch (Exception e) {
+                log.warn("Failed to publish L2 cache invalidation for {}#{}: {}", entityName, ids, e.getMessage());
+            }
+        });
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String[] parts = new String(message.getBody()).split("\\|", 4);
+        if (parts.length != 4 || instanceId.equals(parts[0])) {
+            return;
+        }
+        String entityName = parts[2];
+        try {
+            if (ALL.equals(parts[3])) {
+                sessionFactory.getCache().evictEntityData(entityName);
+            } else {
+                EntityPersister persister = sessionFactory.getMappingMetamodel().getEntityDescriptor(entityName);
+                Class<?> idType = persister.getIdentifierType().getReturnedClass();
+                for (String id : parts[3].split(ID_SEPARATOR)) {
+                    sessionFactory.getCache().evictEntityData(entityName,
+                            DefaultConversionService.getSharedInstance().convert(id, idType));
+                }
+            }
+            if (SCOPE_ALL.equals(parts[1])) {
+                // 自然 ID 缓存无法按实体 ID 定位，整体清除；查询缓存的更新时间戳也只在本地维护
+                sessionFactory.getCache().evictNaturalIdData(entityName);
+                sessionFactory.getCache().evictDefaultQueryRegion();
+            }
+            log.debug("L2 cache invalidated by peer - {} {}#{}", parts[1], entityName, parts[3]);
+        } catch (Exception e) {
+            log.warn("Failed to apply L2 cache invalidation for {}#{}: {}", entityName, parts[3], e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        publisher.shutdown();
+    }
+
+    /**
+     * 监听已缓存实体的插入、更新和删除，在事务提交后发布失效通知。
+     * 插入不影响已缓存的实体，但其他实例的查询缓存（如按键查询到的空结果）需要清除
+     */
+    private class EntityChangeListener implements PostCommitInsertEventListener, PostCommitUpdateEventListener,
+            PostCommitDeleteEventListener {
+
+        @Override
+        public void onPostInsert(PostInsertEvent event) {
+            publish(SCOPE_ALL, event.getPersister().getEntityName(), String.valueOf(event.getId()));
+        }
+
+        @Override
+        public void onPostUpdate(PostUpdateEvent event) {
+            publish(SCOPE_ALL, event.getPersister().getEntityName(), String.valueOf(event.getId()));
+        }
+
+        @Override
+        public void onPostDelete(PostDeleteEvent event) {
+            publish(SCOPE_ALL, event.getPersister().getEntityName(), String.valueOf(event.getId()));
+        }
+
+        @Override
+        public void onPostInsertCommitFailed(PostInsertEvent event) {
+        }
+
+        @Override
+        public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+        }
+
+        @Override
+        public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+        }
+
+        @Override
+        public boolean requiresPostCommitHandling(EntityPersister persister) {
+            return persister.canWriteToCache();
+        }
+    }
+}
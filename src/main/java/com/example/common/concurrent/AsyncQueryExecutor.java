@@ -0,0 +1,217 @@
+package com.example.common.concurrent;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+import com.example.common.datasource.ReplicaRoutingDataSource;
+import com.example.common.exception.TooManyRequestsException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 异步数据库查询执行器
+ * <p>
+ * 用于在一个请求内并行执行多个互不依赖的查询，使各自的数据库往返时间重叠。
+ * <ul>
+ * <li>并发数按连接池大小限制，排队数有界，排队已满时立即拒绝并抛出 {@link TooManyRequestsException}</li>
+ * <li>运行在 Java 21+ 且开启 {@code virtual-threads} 时每个查询使用一个虚拟线程，否则使用定长线程池</li>
+ * <li>把调用线程的安全上下文、MDC 和读写分离的读主库标记传递到执行线程；不传递请求对象本身，
+ * 任务可能在请求结束后才执行</li>
+ * <li>超过 {@code timeout} 未完成的 future 以 {@link TimeoutException} 结束；JDBC 驱动通常不响应线程中断，
+ * 已开始的查询会继续执行完并丢弃结果，尚未开始的查询直接跳过</li>
+ * </ul>
+ * 暴露以下指标：
+ * <ul>
+ * <li>{@code async.query.pending} - 等待执行的查询数</li>
+ * <li>{@code async.query.active} - 正在执行的查询数</li>
+ * <li>{@code async.query.rejected} - 因排队已满被拒绝的次数</li>
+ * <li>{@code async.query.timeout} - 超时次数</li>
+ * <li>{@code async.query.wait} - 查询从提交到开始执行的等待时间</li>
+ * <li>{@code async.query.duration} - 查询执行耗时，按 operation 区分</li>
+ * </ul>
+ */
+@Slf4j
+@Component
+public class AsyncQueryExecutor {
+
+    private final ExecutorService executor;
+    private final Semaphore admission;
+    private final Semaphore running;
+    private final AsyncQueryProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final AtomicInteger pending = new AtomicInteger();
+    private final AtomicInteger active = new AtomicInteger();
+    private final Counter rejectedCounter;
+    private final Counter timeoutCounter;
+    private final Timer waitTimer;
+
+    public AsyncQueryExecutor(AsyncQueryProperties properties, MeterRegistry meterRegistry,
+                              @Value("${spring.datasource.hikari.maximum-pool-size:10}") int poolSize) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+
+        int concurrency = properties.getConcurrency() != null ? properties.getConcurrency() : Math.max(1, poolSize / 2);
+        ExecutorService virtualExecutor = properties.isVirtualThreads() ? newVirtualThreadExecutor() : null;
+        if (virtualExecutor != null) {
+            // 虚拟线程本身没有数量上限，用信号量限制同时访问数据库的查询数
+            this.executor = virtualExecutor;
+            this.running = new Semaphore(concurrency);
+        } else {
+            AtomicInteger threadIndex = new AtomicInteger();
+            this.executor = Executors.newFixedThreadPool(concurrency, runnable -> {
+                Thread thread = new Thread(runnable, "async-query-" + threadIndex.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+            this.running = null;
+        }
+        this.admission = new Semaphore(concurrency + properties.getQueueCapacity());
+
+        Gauge.builder("async.query.pending", pending, AtomicInteger::get)
+                .description("等待执行的异步查询数")
+                .register(meterRegistry);
+        Gauge.builder("async.query.active", active, AtomicInteger::get)
+                .description("正在执行的异步查询数")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("async.query.rejected")
+                .description("因排队已满被拒绝的异步查询数")
+                .register(meterRegistry);
+        this.timeoutCounter = Counter.builder("async.query.timeout")
+                .description("超时的异步查询数")
+                .register(meterRegistry);
+        this.waitTimer = Timer.builder("async.query.wait")
+                .description("异步查询从提交到开始执行的等待时间")
+                .register(meterRegistry);
+
+        log.info("Async query executor initialized - concurrency: {}, queueCapacity: {}, timeout: {}, virtualThreads: {}",
+                concurrency, properties.getQueueCapacity(), properties.getTimeout(), virtualExecutor != null);
+    }
+
+    /**
+     * 提交一个查询，在执行线程上恢复调用线程的上下文后执行
+     *
+     * @param operation 操作名称，用于指标标签和日志，如 findById
+     * @param task      查询任务，需要自行开启事务（通常是调用 Service 代理上的方法）
+     * @return 查询结果，超时时以 {@link TimeoutException} 异常结束
+     * @throws TooManyRequestsException 如果排队已满
+     */
+    public <R> CompletableFuture<R> submit(String operation, Supplier<R> task) {
+        if (!admission.tryAcquire()) {
+            rejectedCounter.increment();
+            log.warn("Async query rejected, queue is full - operation: {}, pending: {}", operation, pending.get());
+            throw new TooManyRequestsException("服务繁忙，请稍后再试");
+        }
+
+        Timer durationTimer = Timer.builder("async.query.duration")
+                .description("异步查询执行耗时")
+                .tag("operation", operation)
+                .register(meterRegistry);
+        CompletableFuture<R> result = new CompletableFuture<>();
+        ContextSnapshot context = ContextSnapshot.capture();
+        long submittedAt = System.nanoTime();
+        pending.incrementAndGet();
+
+        try {
+            executor.execute(() -> {
+                try {
+                    if (running != null) {
+                        running.acquire();
+                    }
+                    try {
+                        pending.decrementAndGet();
+                        active.incrementAndGet();
+                        waitTimer.record(System.nanoTime() - submittedAt, TimeUnit.NANOSECONDS);
+                        if (!result.isDone()) {
+                            result.complete(durationTimer.record(() -> context.call(task)));
+                        }
+                    } finally {
+                        active.decrementAndGet();
+                        if (running != null) {
+                            running.release();
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    pending.decrementAndGet();
+                    Thread.currentThread().interrupt();
+                    result.completeExceptionally(e);
+                } catch (Throwable e) {
+                    result.completeExceptionally(e);
+                } finally {
+                    admission.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            pending.decrementAndGet();
+            admission.release();
+            rejectedCounter.increment();
+            throw new TooManyRequestsException("服务繁忙，请稍后再试", e);
+        }
+
+        result.orTimeout(properties.getTimeout().toMillis(), TimeUnit.MILLISECONDS).whenComplete((value, e) -> {
+            if (e instanceof TimeoutException) {
+                timeoutCounter.increment();
+                log.warn("Async query timed out after {} - operation: {}", properties.getTimeout(), operation);
+            }
+        });
+        return result;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * 通过反射创建虚拟线程执行器，编译目标为 Java 17，运行在 Java 21 以下时返回 null
+     */
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 调用线程上需要传递到执行线程的上下文
+     */
+    private record ContextSnapshot(SecurityContext securityContext, Map<String, String> mdc, boolean stickyToPrimary) {
+
+        static ContextSnapshot capture() {
+            return new ContextSnapshot(SecurityContextHolder.getContext(), MDC.getCopyOfContextMap(),
+                    ReplicaRoutingDataSource.isSticky());
+        }
+
+        <R> R call(Supplier<R> task) {
+            SecurityContextHolder.setContext(securityContext);
+            if (mdc != null) {
+                MDC.setContextMap(mdc);
+            }
+            try {
+                return ReplicaRoutingDataSource.callDetached(stickyToPrimary, task);
+            } finally {
+                MDC.clear();
+                SecurityContextHolder.clearContext();
+            }
+        }
+    }
+}
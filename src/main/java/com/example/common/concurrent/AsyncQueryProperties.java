@@ -0,0 +1,41 @@
+package com.example.common.concurrent;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Data;
+
+/**
+ * 异步查询执行器配置
+ * <p>
+ * 异步查询在独立的线程上执行，每个并发查询各自占用一个数据库连接。并发数需要小于连接池大小，
+ * 否则并行查询会和同步请求争抢连接，反而拉长整体耗时。
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.async-query")
+public class AsyncQueryProperties {
+
+    /**
+     * 最大并发查询数，为空时取主库连接池配置大小的一半。启动后固定，连接池自适应容量处于 adjust 模式时应显式配置，
+     * 并小于主库连接池的下限
+     */
+    private Integer concurrency;
+
+    /**
+     * 等待执行的查询数上限，超出后新的异步查询被立即拒绝
+     */
+    private int queueCapacity = 100;
+
+    /**
+     * 单个异步查询从提交到完成的最长时间，超时的 future 以 {@link java.util.concurrent.TimeoutException} 结束
+     */
+    private Duration timeout = Duration.ofSeconds(5);
+
+    /**
+     * 运行在 Java 21+ 时是否使用虚拟线程，并发数仍然受 {@link #concurrency} 限制
+     */
+    private boolean virtualThreads = true;
+}
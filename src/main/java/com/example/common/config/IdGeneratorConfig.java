@@ -0,0 +1,24 @@
+package com.example.common.config;
+
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.example.common.id.IdGeneratorProperties;
+import com.example.common.id.SnowflakeIdentifierGenerator;
+
+/**
+ * 主键生成配置
+ * <p>
+ * {@link SnowflakeIdentifierGenerator} 由 Hibernate 在启动时实例化，无法直接注入 Spring 配置，
+ * 这里把 {@code app.id.strategy} 转写为 Hibernate 配置项传给它。
+ */
+@Configuration
+public class IdGeneratorConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer idStrategyHibernatePropertiesCustomizer(IdGeneratorProperties properties) {
+        return hibernateProperties -> hibernateProperties.put(SnowflakeIdentifierGenerator.STRATEGY_SETTING,
+                properties.getStrategy().name());
+    }
+}
@@ -1,6 +1,9 @@
 package com.example.common.config;
 
+import com.example.common.security.BoundedPasswordEncoder;
+import com.example.common.security.CalibratedPasswordEncoderFactory;
 import com.example.common.security.JwtAuthenticationFilter;
+import com.example.common.security.PasswordHashingExecutor;
 import com.example.common.security.RestAccessDeniedHandler;
 import com.example.common.security.RestAuthenticationEntryPoint;
 import lombok.RequiredArgsConstructor;
@@ -15,8 +18,8 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
@@ -40,13 +43,20 @@ public class SecurityConfig {
     private final RestAccessDeniedHandler accessDeniedHandler;
     private final RestAuthenticationEntryPoint authenticationEntryPoint;
     private final UserDetailsService userDetailsService;
+    private final PasswordHashingExecutor passwordHashingExecutor;
+    private final CalibratedPasswordEncoderFactory calibratedPasswordEncoderFactory;
+    private final UserDetailsPasswordService userDetailsPasswordService;
 
     /**
-     * 密码编码器（使用 BCrypt 哈希算法），用于安全密码存储。
+     * 密码编码器，用于安全密码存储。
+     * <p>
+     * 按配置的算法委托给 BCrypt/PBKDF2/Argon2，成本参数在启动时根据本机性能校准，
+     * 详见 {@link CalibratedPasswordEncoderFactory}。
+     * 哈希与校验都在专用的有界线程池中执行，不占用请求线程的 CPU，详见 {@link PasswordHashingExecutor}。
      */
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        return new BoundedPasswordEncoder(calibratedPasswordEncoderFactory.create(), passwordHashingExecutor);
     }
 
     /**
@@ -66,6 +76,7 @@ public class SecurityConfig {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
         authProvider.setUserDetailsService(userDetailsService);
         authProvider.setPasswordEncoder(passwordEncoder());
+        authProvider.setUserDetailsPasswordService(userDetailsPasswordService);
         return authProvider;
     }
 
@@ -0,0 +1,29 @@
+package com.example.common.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.example.common.sql.SqlStatementInspector;
+import com.example.common.sql.SqlTimingSessionListener;
+
+/**
+ * SQL 语句统计配置
+ * <p>
+ * 向 Hibernate 注册语句检查器和会话事件监听器，分别统计语句数和 JDBC 执行耗时，
+ * 统计范围由 {@link com.example.common.sql.SqlStatsFilter} 和 {@link com.example.common.sql.SqlStatsAspect} 打开。
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.sql-stats", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class SqlStatsConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer sqlStatsHibernatePropertiesCustomizer() {
+        return hibernateProperties -> {
+            hibernateProperties.put(AvailableSettings.STATEMENT_INSPECTOR, new SqlStatementInspector());
+            hibernateProperties.put(AvailableSettings.AUTO_SESSION_EVENTS_LISTENER, SqlTimingSessionListener.class.getName());
+        };
+    }
+}
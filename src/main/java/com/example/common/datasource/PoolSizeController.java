@@ -0,0 +1,257 @@
+package com.example.common.datasource;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.jdbc.DataSourceUnwrapper;
+import org.springframework.stereotype.Component;
+import org.springframework.util.Assert;
+
+import com.zaxxer.hikari.HikariConfigMXBean;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 连接池自适应容量控制器
+ * <p>
+ * 每个评估周期根据 Hikari 自身的指标（{@code hikaricp.connections.acquire}、{@code hikaricp.connections.usage}）
+ * 计算该周期内的平均获取连接等待时间、平均连接占用时间和平均繁忙连接数（占用总时长 / 周期长度），然后：
+ * <ul>
+ * <li>等待时间超过 {@code target-acquire-wait} 或有线程在等待连接，且连接占用时间没有明显高于基线时，扩容一个步长；
+ * 占用时间同时变长说明瓶颈在数据库，增加连接只会加剧争用，此时保持不变</li>
+ * <li>连续 {@code shrink-after} 个周期没有等待、且繁忙连接数乘以余量仍小于当前大小时，缩容一个步长</li>
+ * </ul>
+ * 连接占用时间的基线是无等待周期的指数移动平均。只有出现扩容或缩容信号时才调整，调整结果限制在该连接池的上下限之内
+ * （见 {@link PoolSizingProperties#getPools()}），配置大小超出上下限的连接池在没有负载信号时保持原样；
+ * report 模式只记录建议值，adjust 模式通过 {@link HikariConfigMXBean} 在运行时修改 {@code maximum-pool-size}。
+ * <p>
+ * 异步查询执行器的并发数在启动时确定，不随连接池大小变化，adjust 模式下需要单独配置，见 {@link PoolSizingProperties}。
+ * <p>
+ * 指标：{@code datasource.pool.recommended_size}（建议的连接池大小）、{@code datasource.pool.busy}（上一周期的平均繁忙连接数）、
+ * {@code datasource.pool.resizes}（实际调整次数，按 direction 区分），均按 pool 区分。
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "app.datasource.pool-sizing", name = "enabled", havingValue = "true")
+public class PoolSizeController {
+
+    /**
+     * 连接占用时间基线的平滑系数
+     */
+    private static final double BASELINE_WEIGHT = 0.2;
+
+    private final PoolSizingProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final List<Pool> pools = new ArrayList<>();
+    private final ScheduledExecutorService scheduler;
+
+    public PoolSizeController(PoolSizingProperties properties, ObjectProvider<DataSource> dataSources, MeterRegistry meterRegistry) {
+        Assert.isTrue(properties.getMinSize() > 0 && properties.getMinSize() <= properties.getMaxSize(),
+                "pool-sizing requires 0 < minSize <= maxSize");
+        Assert.isTrue(properties.getStep() > 0, "pool-sizing step must be greater than 0");
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+
+        // 读写分离时路由数据源可能解包到主库连接池，按实例去重
+        Set<HikariDataSource> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+        dataSources.orderedStream().forEach(dataSource -> {
+            HikariDataSource hikari = DataSourceUnwrapper.unwrap(dataSource, HikariConfigMXBean.class, HikariDataSource.class);
+            if (hikari != null && seen.add(hikari)) {
+                pools.add(new Pool(hikari));
+            }
+        });
+
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "pool-size-controller");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = properties.getInterval().toMillis();
+        scheduler.scheduleWithFixedDelay(this::evaluateAll, interval, interval, TimeUnit.MILLISECONDS);
+        log.info("Pool size controller initialized - mode: {}, pools: {}, interval: {}", properties.getMode(),
+                pools.stream().map(pool -> pool.name + " [" + pool.minSize + ", " + pool.maxSize + "]").toList(),
+                properties.getInterval());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    private void evaluateAll() {
+        for (Pool pool : pools) {
+            try {
+                evaluate(pool);
+            } catch (Exception e) {
+                log.warn("Pool size evaluation failed - pool: {}: {}", pool.name, e.getMessage());
+            }
+        }
+    }
+
+    private void evaluate(Pool pool) {
+        HikariPoolMXBean poolBean = pool.dataSource.getHikariPoolMXBean();
+        Timer acquire = meterRegistry.find("hikaricp.connections.acquire").tag("pool", pool.name).timer();
+        Timer usage = meterRegistry.find("hikaricp.connections.usage").tag("pool", pool.name).timer();
+        if (poolBean == null || acquire == null || usage == null) {
+            // 连接池尚未启动，或没有注册 Hikari 指标
+            log.debug("Pool {} has no metrics yet, skipping", pool.name);
+            return;
+        }
+
+        long acquireCount = acquire.count();
+        double acquireMillis = acquire.totalTime(TimeUnit.MILLISECONDS);
+        long usageCount = usage.count();
+        double usageMillis = usage.totalTime(TimeUnit.MILLISECONDS);
+        boolean first = !pool.sampled;
+        long acquired = acquireCount - pool.acquireCount;
+        double waitMillis = acquired > 0 ? (acquireMillis - pool.acquireMillis) / acquired : 0;
+        long used = usageCount - pool.usageCount;
+        double heldMillis = usageMillis - pool.usageMillis;
+        pool.sampled = true;
+        pool.acquireCount = acquireCount;
+        pool.acquireMillis = acquireMillis;
+        pool.usageCount = usageCount;
+        pool.usageMillis = usageMillis;
+        if (first) {
+            return;
+        }
+
+        double latency = used > 0 ? heldMillis / used : Double.NaN;
+        pool.busy = heldMillis / properties.getInterval().toMillis();
+        int waiting = poolBean.getThreadsAwaitingConnection();
+        int current = pool.dataSource.getHikariConfigMXBean().getMaximumPoolSize();
+
+        int recommended = current;
+        String reason;
+        if (waitMillis > properties.getTargetAcquireWait().toMillis() || waiting > 0) {
+            pool.idleIntervals = 0;
+            if (!Double.isNaN(pool.baselineLatency) && latency > pool.baselineLatency * properties.getLatencyDegradation()) {
+                reason = "connections starved but database latency degraded, holding";
+            } else if (current >= pool.maxSize) {
+                reason = "connections starved but max-size reached, holding";
+            } else {
+                recommended = Math.min(pool.maxSize, current + properties.getStep());
+                reason = "connections starved";
+            }
+        } else {
+            if (!Double.isNaN(latency)) {
+                pool.baselineLatency = Double.isNaN(pool.baselineLatency)
+                        ? latency
+                        : pool.baselineLatency * (1 - BASELINE_WEIGHT) + latency * BASELINE_WEIGHT;
+            }
+            int needed = (int) Math.ceil(pool.busy * properties.getHeadroom());
+            if (needed < current && ++pool.idleIntervals >= properties.getShrinkAfter()) {
+                pool.idleIntervals = 0;
+                if (current <= pool.minSize) {
+                    reason = "connections idle but min-size reached, holding";
+                } else {
+                    recommended = Math.max(pool.minSize, Math.max(needed, current - properties.getStep()));
+                    reason = "connections idle";
+                }
+            } else {
+                if (needed >= current) {
+                    pool.idleIntervals = 0;
+                }
+                reason = "steady";
+            }
+        }
+        pool.recommended = recommended;
+
+        if (recommended == current) {
+            log.debug("Pool {} size {} kept ({}) - acquireWait: {}ms, waiting: {}, latency: {}ms, busy: {}",
+                    pool.name, current, reason, format(waitMillis), waiting, format(latency), format(pool.busy));
+            return;
+        }
+        if (properties.getMode() == PoolSizingProperties.Mode.REPORT) {
+            log.info("Pool {} size recommendation: {} -> {} ({}) - acquireWait: {}ms, waiting: {}, latency: {}ms, baseline: {}ms, busy: {}",
+                    pool.name, current, recommended, reason, format(waitMillis), waiting, format(latency),
+                    format(pool.baselineLatency), format(pool.busy));
+            return;
+        }
+        resize(pool, current, recommended);
+        log.info("Pool {} resized: {} -> {} ({}) - acquireWait: {}ms, waiting: {}, latency: {}ms, baseline: {}ms, busy: {}",
+                pool.name, current, recommended, reason, format(waitMillis), waiting, format(latency),
+                format(pool.baselineLatency), format(pool.busy));
+    }
+
+    private void resize(Pool pool, int current, int size) {
+        HikariConfigMXBean config = pool.dataSource.getHikariConfigMXBean();
+        if (config.getMinimumIdle() > size) {
+            config.setMinimumIdle(size);
+        }
+        config.setMaximumPoolSize(size);
+        (size > current ? pool.grown : pool.shrunk).increment();
+    }
+
+    private static String format(double value) {
+        return Double.isNaN(value) ? "-" : String.format("%.1f", value);
+    }
+
+    /**
+     * 单个连接池的评估状态，只在控制器线程中读写（指标读取除外）
+     */
+    private final class Pool {
+
+        private final HikariDataSource dataSource;
+        private final String name;
+        private final int minSize;
+        private final int maxSize;
+        private final Counter grown;
+        private final Counter shrunk;
+
+        private boolean sampled;
+        private long acquireCount;
+        private double acquireMillis;
+        private long usageCount;
+        private double usageMillis;
+        private double baselineLatency = Double.NaN;
+        private int idleIntervals;
+        private volatile double busy;
+        private volatile int recommended;
+
+        private Pool(HikariDataSource dataSource) {
+            this.dataSource = dataSource;
+            this.name = dataSource.getPoolName();
+            this.minSize = properties.getMinSize(name);
+            this.maxSize = properties.getMaxSize(name);
+            Assert.isTrue(minSize > 0 && minSize <= maxSize, () -> "pool-sizing requires 0 < minSize <= maxSize for pool " + name);
+            this.recommended = dataSource.getMaximumPoolSize();
+
+            Gauge.builder("datasource.pool.recommended_size", this, pool -> pool.recommended)
+                    .description("自适应控制器建议的连接池大小")
+                    .tag("pool", name)
+                    .register(meterRegistry);
+            Gauge.builder("datasource.pool.busy", this, pool -> pool.busy)
+                    .description("上一个评估周期的平均繁忙连接数")
+                    .tag("pool", name)
+                    .register(meterRegistry);
+            this.grown = resizeCounter("grow");
+            this.shrunk = resizeCounter("shrink");
+        }
+
+        private Counter resizeCounter(String direction) {
+            return Counter.builder("datasource.pool.resizes")
+                    .description("自适应控制器调整连接池大小的次数")
+                    .tag("pool", name)
+                    .tag("direction", direction)
+                    .register(meterRegistry);
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.common.datasource;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.Nullable;
+import lombok.Data;
+
+/**
+ * 连接池自适应容量配置
+ * <p>
+ * 启用后 {@link PoolSizeController} 按获取连接的等待时间和连接占用时间，在 {@code min-size} 与 {@code max-size}
+ * 之间调整每个 Hikari 连接池的 {@code maximum-pool-size}，主库和副本的上下限可以通过 {@code pools} 分别配置。
+ * <p>
+ * 注意：异步查询执行器的并发数在启动时按主库连接池的配置大小确定，不随调整变化。adjust 模式下应显式配置
+ * {@code app.async-query.concurrency}，并使其明显小于主库的 {@code min-size}，避免缩容后异步查询占满连接池。
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.datasource.pool-sizing")
+public class PoolSizingProperties {
+
+    /**
+     * 是否启用
+     */
+    private boolean enabled = false;
+
+    /**
+     * 运行模式：report 只记录建议值，adjust 实际修改连接池大小
+     */
+    private Mode mode = Mode.REPORT;
+
+    /**
+     * 评估间隔
+     */
+    private Duration interval = Duration.ofSeconds(30);
+
+    /**
+     * 连接池大小下限
+     */
+    private int minSize = 10;
+
+    /**
+     * 连接池大小上限
+     */
+    private int maxSize = 40;
+
+    /**
+     * 按 Hikari 连接池名称（{@code pool-name}）配置的上下限，未配置的项使用全局的 {@code min-size}、{@code max-size}
+     */
+    private Map<String, PoolBounds> pools = new LinkedHashMap<>();
+
+    /**
+     * 每次调整的连接数
+     */
+    private int step = 2;
+
+    /**
+     * 平均获取连接等待时间超过该值（或评估时有线程在等待连接）时视为连接不足
+     */
+    private Duration targetAcquireWait = Duration.ofMillis(5);
+
+    /**
+     * 平均连接占用时间超过正常基线的倍数时视为数据库已饱和，此时不再扩容
+     */
+    private double latencyDegradation = 1.5;
+
+    /**
+     * 缩容时在平均繁忙连接数之上保留的余量倍数
+     */
+    private double headroom = 1.5;
+
+    /**
+     * 连续多少个评估周期连接都有富余才缩容
+     */
+    private int shrinkAfter = 4;
+
+    /**
+     * 返回指定连接池的大小下限
+     */
+    public int getMinSize(String poolName) {
+        PoolBounds bounds = pools.get(poolName);
+        return bounds != null && bounds.getMinSize() != null ? bounds.getMinSize() : minSize;
+    }
+
+    /**
+     * 返回指定连接池的大小上限
+     */
+    public int getMaxSize(String poolName) {
+        PoolBounds bounds = pools.get(poolName);
+        return bounds != null && bounds.getMaxSize() != null ? bounds.getMaxSize() : maxSize;
+    }
+
+    public enum Mode {
+        REPORT, ADJUST
+    }
+
+    /**
+     * 单个连接池的上下限
+     */
+    @Data
+    public static class PoolBounds {
+
+        /**
+         * 连接池大小下限，为空时使用全局配置
+         */
+        @Nullable
+        private Integer minSize;
+
+        /**
+         * 连接池大小上限，为空时使用全局配置
+         */
+        @Nullable
+        private Integer maxSize;
+    }
+}
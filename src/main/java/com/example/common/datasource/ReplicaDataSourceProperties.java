@@ -0,0 +1,43 @@
+package com.example.common.datasource;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Data;
+
+/**
+ * 只读副本数据源配置
+ * <p>
+ * 启用后只读事务（{@code @Transactional(readOnly = true)}）路由到副本，其余流量仍走 {@code spring.datasource} 主库。
+ * 连接池参数通过 {@code app.datasource.replica.hikari.*} 配置，与 {@code spring.datasource.hikari.*} 相同。
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.datasource.replica")
+public class ReplicaDataSourceProperties {
+
+    /**
+     * 是否启用读写分离
+     */
+    private boolean enabled = false;
+
+    private String url;
+
+    private String username;
+
+    private String password;
+
+    private String driverClassName = "com.mysql.cj.jdbc.Driver";
+
+    /**
+     * 允许的最大复制延迟，超过时只读事务回退到主库
+     */
+    private Duration maxLag = Duration.ofSeconds(1);
+
+    /**
+     * 检查复制延迟的间隔
+     */
+    private Duration lagCheckInterval = Duration.ofSeconds(5);
+}
@@ -0,0 +1,102 @@
+package com.example.common.datasource;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import jakarta.annotation.Nullable;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 副本复制延迟监控
+ * <p>
+ * 定期在副本上执行 {@code SHOW REPLICA STATUS}，延迟超过 {@code max-lag}、复制中断或副本不可用时
+ * 标记为不可用，{@link ReplicaRoutingDataSource} 据此把只读事务回退到主库。
+ * 副本未配置复制（如本地用两个独立数据库测试）时视为无延迟。
+ * <p>
+ * 第一次检查的结果和之后每次状态变化都会记录日志，启动时就无法使用的副本（如缺少 REPLICATION CLIENT 权限、
+ * 复制未运行）不会被悄悄忽略。
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+
+    private final DataSource replicaDataSource;
+    private final ReplicaDataSourceProperties properties;
+    private final ScheduledExecutorService scheduler;
+
+    private volatile boolean available = false;
+    /**
+     * 是否已完成第一次检查，只在监控线程中读写
+     */
+    private boolean checked;
+
+    public ReplicaLagMonitor(DataSource replicaDataSource, ReplicaDataSourceProperties properties) {
+        this.replicaDataSource = replicaDataSource;
+        this.properties = properties;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-lag-monitor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = properties.getLagCheckInterval().toMillis();
+        scheduler.scheduleWithFixedDelay(this::check, 0, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 副本当前是否可以承接只读流量
+     */
+    public boolean isAvailable() {
+        return available;
+    }
+
+    private void check() {
+        boolean previous = available;
+        boolean first = !checked;
+        checked = true;
+        try {
+            Long lagSeconds = queryLagSeconds();
+            available = lagSeconds != null && lagSeconds * 1000 <= properties.getMaxLag().toMillis();
+            if (first || previous != available) {
+                if (available) {
+                    log.info("副本{}承接只读流量 - 复制延迟: {}s", first ? "开始" : "恢复", lagSeconds);
+                } else {
+                    log.warn("副本{}承接只读流量，只读流量回退到主库 - 复制延迟: {}", first ? "暂不" : "停止",
+                            lagSeconds == null ? "复制未运行" : lagSeconds + "s");
+                }
+            }
+        } catch (Exception e) {
+            available = false;
+            if (first || previous) {
+                log.warn("副本不可用，只读流量回退到主库: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * @return 复制延迟秒数；未配置复制时返回 0；复制中断时返回 null
+     */
+    @Nullable
+    private Long queryLagSeconds() throws SQLException {
+        try (Connection connection = replicaDataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SHOW REPLICA STATUS")) {
+            if (!rs.next()) {
+                return 0L;
+            }
+            long lag = rs.getLong("Seconds_Behind_Source");
+            return rs.wasNull() ? null : lag;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.common.datasource;
+
+import java.util.Map;
+import java.util.function.Supplier;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+/**
+ * 按事务读写属性路由的数据源
+ * <p>
+ * 只读事务路由到副本，其余（读写事务、无事务）路由到主库。以下情况只读事务也会回退到主库：
+ * <ul>
+ * <li>当前请求中已经执行过读写事务（read-your-writes），保证请求内读到自己刚写入的数据</li>
+ * <li>{@link ReplicaLagMonitor} 报告副本延迟过大或不可用</li>
+ * </ul>
+ * 请求以外的线程（如异步查询）不能访问请求属性，由 {@link #callDetached(boolean, Supplier)} 在当前线程上单独保存该标记。
+ * <p>
+ * 必须包装在 {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy} 中使用：
+ * 事务开始时还没有设置只读标记，要等到执行第一条语句真正获取连接时再决定路由。
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    private static final String PRIMARY = "primary";
+    private static final String REPLICA = "replica";
+
+    /**
+     * 请求属性：当前请求已执行过读写事务
+     */
+    private static final String STICKY_ATTRIBUTE = ReplicaRoutingDataSource.class.getName() + ".STICKY";
+
+    /**
+     * 脱离请求执行时的读主库标记，不为 null 时优先于请求属性
+     */
+    private static final ThreadLocal<Boolean> DETACHED_STICKY = new ThreadLocal<>();
+
+    private final ReplicaLagMonitor lagMonitor;
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, ReplicaLagMonitor lagMonitor) {
+        this.lagMonitor = lagMonitor;
+        setTargetDataSources(Map.of(PRIMARY, primary, REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+    }
+
+    /**
+     * 当前线程上的只读事务是否需要读主库：当前请求（或 {@link #callDetached} 传入的上下文）中已经执行过读写事务
+     */
+    public static boolean isSticky() {
+        Boolean detached = DETACHED_STICKY.get();
+        if (detached != null) {
+            return detached;
+        }
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        return request != null && request.getAttribute(STICKY_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) != null;
+    }
+
+    /**
+     * 在请求以外的线程上执行任务，用 {@code sticky} 代替请求属性决定只读事务是否读主库；
+     * 任务中执行的读写事务只影响本次调用，不会回写到原请求
+     *
+     * @param sticky 调用方在提交任务时的 {@link #isSticky()}
+     * @param task   任务
+     */
+    public static <R> R callDetached(boolean sticky, Supplier<R> task) {
+        DETACHED_STICKY.set(sticky);
+        try {
+            return task.get();
+        } finally {
+            DETACHED_STICKY.remove();
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                markSticky();
+            }
+            return PRIMARY;
+        }
+        if (isSticky()) {
+            return PRIMARY;
+        }
+        return lagMonitor.isAvailable() ? REPLICA : PRIMARY;
+    }
+
+    private static void markSticky() {
+        if (DETACHED_STICKY.get() != null) {
+            DETACHED_STICKY.set(Boolean.TRUE);
+            return;
+        }
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        if (request != null) {
+            request.setAttribute(STICKY_ATTRIBUTE, Boolean.TRUE, RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.common.exception;
+
+/**
+ * 数据版本冲突异常
+ * 用于乐观锁检测到并发修改的场景，客户端应重新读取最新数据后再提交，统一以 HTTP 409 返回
+ */
+public class ConflictException extends BusinessException {
+
+    /**
+     * 构造方法
+     */
+    public ConflictException() {
+        super(ErrorEnum.VERSION_CONFLICT.getCode(), ErrorEnum.VERSION_CONFLICT.getMessage());
+    }
+
+    /**
+     * 构造方法
+     */
+    public ConflictException(String message) {
+        super(ErrorEnum.VERSION_CONFLICT.getCode(), message);
+    }
+
+    /**
+     * 构造方法
+     */
+    public ConflictException(String message, Throwable cause) {
+        super(ErrorEnum.VERSION_CONFLICT.getCode(), message, cause);
+    }
+}
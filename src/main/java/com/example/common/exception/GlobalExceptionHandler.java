@@ -7,6 +7,7 @@ import jakarta.validation.ConstraintViolationException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.support.DefaultMessageSourceResolvable;
 import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.validation.FieldError;
 import org.springframework.web.HttpRequestMethodNotSupportedException;
@@ -58,6 +59,36 @@ public class GlobalExceptionHandler {
         return ApiResponse.error(e.getErrorCode(), e.getMessage());
     }
 
+    /**
+     * 处理服务端资源饱和导致的 TooManyRequestsException 异常，返回 429 提示客户端稍后重试。
+     */
+    @ExceptionHandler(TooManyRequestsException.class)
+    @ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
+    public ApiResponse<?> handleTooManyRequestsException(TooManyRequestsException e, HttpServletRequest request) {
+        log.warn("请求过多 - {}: {}", request.getRequestURI(), e.getMessage());
+        return ApiResponse.error(e.getErrorCode(), e.getMessage());
+    }
+
+    /**
+     * 处理乐观锁检测到并发修改的 ConflictException 异常，返回 409 提示客户端重新读取后再提交。
+     */
+    @ExceptionHandler(ConflictException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ApiResponse<?> handleConflictException(ConflictException e, HttpServletRequest request) {
+        log.warn("数据版本冲突 - {}: {}", request.getRequestURI(), e.getMessage());
+        return ApiResponse.error(e.getErrorCode(), e.getMessage());
+    }
+
+    /**
+     * 处理事务提交时才暴露的乐观锁失败（未经 Service 包装），同样按版本冲突返回 409。
+     */
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ApiResponse<?> handleOptimisticLockingFailure(OptimisticLockingFailureException e, HttpServletRequest request) {
+        log.warn("数据版本冲突 - {}: {}", request.getRequestURI(), e.getMessage());
+        return ApiResponse.error(ErrorEnum.VERSION_CONFLICT);
+    }
+
     /**
      * 处理 NoResourceFoundException 异常。
      * NOTE：别导错了包，此处需要的是 ...mvc.NoResourceFoundException 而非 reactive/NoResourceFoundException。
@@ -149,6 +180,16 @@ public class GlobalExceptionHandler {
         return ApiResponse.error(HttpStatus.BAD_REQUEST, "请求参数有误，请检查", details);
     }
 
+    /**
+     * 业务代码主动抛出的参数校验异常。
+     */
+    @ExceptionHandler(ValidationException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ApiResponse<?> handleValidationException(ValidationException e, HttpServletRequest request) {
+        log.warn("请求参数校验失败 - {}, {}: {}", getHandlerMethodInfo(request), e.getMessage(), e.getErrors());
+        return ApiResponse.error(HttpStatus.BAD_REQUEST, e.getMessage(), new HashMap<>(e.getErrors()));
+    }
+
     /**
      * 获取处理方法的详细信息。
      * 包括 Controller 类名和方法名。
@@ -0,0 +1,29 @@
+package com.example.common.exception;
+
+/**
+ * 请求过多异常
+ * 用于服务端资源饱和、需要客户端稍后重试的场景，统一以 HTTP 429 返回
+ */
+public class TooManyRequestsException extends BusinessException {
+
+    /**
+     * 构造方法
+     */
+    public TooManyRequestsException() {
+        super(ErrorEnum.TOO_MANY_REQUESTS.getCode(), ErrorEnum.TOO_MANY_REQUESTS.getMessage());
+    }
+
+    /**
+     * 构造方法
+     */
+    public TooManyRequestsException(String message) {
+        super(ErrorEnum.TOO_MANY_REQUESTS.getCode(), message);
+    }
+
+    /**
+     * 构造方法
+     */
+    public TooManyRequestsException(String message, Throwable cause) {
+        super(ErrorEnum.TOO_MANY_REQUESTS.getCode(), message, cause);
+    }
+}
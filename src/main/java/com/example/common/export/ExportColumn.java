@@ -0,0 +1,17 @@
+package com.example.common.export;
+
+import java.util.function.Function;
+
+/**
+ * CSV 导出列定义
+ *
+ * @param header    表头
+ * @param extractor 从行对象中取出该列的值，返回 null 时输出空单元格
+ * @param <T>       行对象类型
+ */
+public record ExportColumn<T>(String header, Function<? super T, ?> extractor) {
+
+    public static <T> ExportColumn<T> of(String header, Function<? super T, ?> extractor) {
+        return new ExportColumn<>(header, extractor);
+    }
+}
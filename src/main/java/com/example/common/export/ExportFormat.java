@@ -0,0 +1,33 @@
+package com.example.common.export;
+
+/**
+ * 导出文件格式
+ */
+public enum ExportFormat {
+
+    /**
+     * 每行一个 JSON 对象（Newline Delimited JSON）
+     */
+    NDJSON("application/x-ndjson", "ndjson"),
+
+    /**
+     * 逗号分隔值，首行为表头，UTF-8 带 BOM 以便 Excel 正确识别编码
+     */
+    CSV("text/csv", "csv");
+
+    private final String contentType;
+    private final String extension;
+
+    ExportFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+}
@@ -0,0 +1,212 @@
+package com.example.common.export;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import jakarta.annotation.Nullable;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 流式导出工具。
+ * <p>
+ * 数据由调用方提供的数据源逐行推送（通常是 {@code BaseService#forEach}），每行序列化后写入固定大小的缓冲区，
+ * 每 {@value #CHUNK_ROWS} 行向客户端刷新一次，内存中最多只保留一个块的数据。
+ * 响应体通过 {@link StreamingResponseBody} 在 MVC 异步线程中写出，数据源需要自行管理事务。
+ * <p>
+ * 注意：导出接口的路径需以 {@code /export} 结尾，以绕过
+ * {@link com.example.common.filter.ContentCachingFilter} 对响应体的整体缓存。
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StreamingExporter {
+
+    /**
+     * 每个块包含的行数，写满一个块后刷新到客户端
+     */
+    private static final int CHUNK_ROWS = 500;
+
+    /**
+     * 写缓冲区大小
+     */
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final char UTF8_BOM = '\uFEFF';
+
+    /**
+     * 以这些字符开头的单元格会被 Excel 等表格软件当作公式执行
+     */
+    private static final String FORMULA_PREFIXES = "=+-@\t\r";
+
+    private final ObjectMapper objectMapper;
+
+    /**
+     * 创建流式导出响应
+     *
+     * @param filename 文件名（不含扩展名）
+     * @param format   导出格式
+     * @param gzip     是否 gzip 压缩，压缩后文件名追加 {@code .gz}
+     * @param view     NDJSON 使用的 {@code @JsonView} 视图，为 null 时按实体默认规则序列化
+     * @param columns  CSV 列定义
+     * @param source   数据源，接收一个行处理器并逐行推送数据
+     * @return 流式响应
+     */
+    public <T> ResponseEntity<StreamingResponseBody> export(String filename, ExportFormat format, boolean gzip,
+                                                            @Nullable Class<?> view, List<ExportColumn<T>> columns,
+                                                            Consumer<Consumer<T>> source) {
+        String fullName = "%s-%s.%s%s".formatted(filename, LocalDate.now().format(DateTimeFormatter.BASIC_ISO_DATE),
+                format.getExtension(), gzip ? ".gz" : "");
+
+        StreamingResponseBody body = out -> write(out, format, gzip, view, columns, source, fullName);
+
+        return ResponseEntity.ok()
+                .contentType(gzip ? MediaType.parseMediaType("application/gzip")
+                        : MediaType.parseMediaType(format.getContentType() + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(fullName, StandardCharsets.UTF_8).build().toString())
+                .body(body);
+    }
+
+    private <T> void write(OutputStream out, ExportFormat format, boolean gzip, @Nullable Class<?> view,
+                           List<ExportColumn<T>> columns, Consumer<Consumer<T>> source, String fullName) throws IOException {
+        long start = System.currentTimeMillis();
+        // syncFlush 保证每次 flush 时已压缩的数据能立即发送给客户端，而不是等到流结束
+        OutputStream target = gzip ? new GZIPOutputStream(out, BUFFER_SIZE, true) : out;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(target, StandardCharsets.UTF_8), BUFFER_SIZE);
+
+        RowWriter<T> rowWriter = format == ExportFormat.CSV ? new CsvRowWriter<>(writer, columns) : new NdjsonRowWriter<>(writer, view);
+        rowWriter.begin();
+
+        long[] rows = {0};
+        try {
+            source.accept(row -> {
+                try {
+                    rowWriter.write(row);
+                    if (++rows[0] % CHUNK_ROWS == 0) {
+                        writer.flush();
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            // 通常是客户端中途断开连接
+            log.warn("导出中断 - {}, 已写出 {} 行: {}", fullName, rows[0], e.getCause().getMessage());
+            throw e.getCause();
+        }
+
+        writer.flush();
+        if (target instanceof GZIPOutputStream gzipOut) {
+            gzipOut.finish();
+        }
+        log.info("导出完成 - {}, 共 {} 行, 耗时 {} ms", fullName, rows[0], System.currentTimeMillis() - start);
+    }
+
+    private interface RowWriter<T> {
+
+        default void begin() throws IOException {
+        }
+
+        void write(T row) throws IOException;
+    }
+
+    private final class NdjsonRowWriter<T> implements RowWriter<T> {
+
+        private final Writer writer;
+        private final ObjectWriter jsonWriter;
+
+        NdjsonRowWriter(Writer writer, @Nullable Class<?> view) {
+            this.writer = writer;
+            ObjectWriter base = view == null ? objectMapper.writer() : objectMapper.writerWithView(view);
+            this.jsonWriter = base.without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        }
+
+        @Override
+        public void write(T row) throws IOException {
+            jsonWriter.writeValue(writer, row);
+            writer.write('\n');
+        }
+    }
+
+    private static final class CsvRowWriter<T> implements RowWriter<T> {
+
+        private final Writer writer;
+        private final List<ExportColumn<T>> columns;
+
+        CsvRowWriter(Writer writer, List<ExportColumn<T>> columns) {
+            this.writer = writer;
+            this.columns = columns;
+        }
+
+        @Override
+        public void begin() throws IOException {
+            writer.write(UTF8_BOM);
+            for (int i = 0; i < columns.size(); i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                writeCell(columns.get(i).header());
+            }
+            writer.write("\r\n");
+        }
+
+        @Override
+        public void write(T row) throws IOException {
+            for (int i = 0; i < columns.size(); i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                Object value = columns.get(i).extractor().apply(row);
+                if (value != null) {
+                    // 数值（如负数）不会被当作公式，保持原样以免改变其类型
+                    writeCell(value instanceof Number ? value.toString() : neutralizeFormula(value.toString()));
+                }
+            }
+            writer.write("\r\n");
+        }
+
+        /**
+         * 在可能被解释为公式的单元格前加单引号，防止用户填写的内容在打开导出文件时被执行（CSV 注入）
+         */
+        private static String neutralizeFormula(String value) {
+            return !value.isEmpty() && FORMULA_PREFIXES.indexOf(value.charAt(0)) >= 0 ? "'" + value : value;
+        }
+
+        /**
+         * 按 RFC 4180 转义：包含逗号、引号或换行的单元格用双引号包裹，内部双引号加倍
+         */
+        private void writeCell(String value) throws IOException {
+            boolean quote = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                    || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+            if (!quote) {
+                writer.write(value);
+                return;
+            }
+            writer.write('"');
+            writer.write(value.replace("\"", "\"\""));
+            writer.write('"');
+        }
+    }
+}
@@ -13,14 +13,23 @@ import java.io.IOException;
  * 内容缓存过滤器
  *
  * 用于缓存请求和响应内容，以便拦截器可以多次读取
+ * <p>
+ * 流式导出接口（路径以 {@code /export} 结尾）不做缓存，否则整个导出内容会被缓存在内存中直到请求结束
  */
 @Component
 public class ContentCachingFilter implements Filter {
 
+    private static final String STREAMING_PATH_SUFFIX = "/export";
+
     @Override
     public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
             throws IOException, ServletException {
 
+        if (isStreamingRequest((HttpServletRequest) request)) {
+            chain.doFilter(request, response);
+            return;
+        }
+
         // 包装请求和响应，以便多次读取内容
         ContentCachingRequestWrapper requestWrapper = new ContentCachingRequestWrapper((HttpServletRequest) request);
         ContentCachingResponseWrapper responseWrapper = new ContentCachingResponseWrapper((HttpServletResponse) response);
@@ -33,6 +42,10 @@ public class ContentCachingFilter implements Filter {
         }
     }
 
+    private boolean isStreamingRequest(HttpServletRequest request) {
+        return request.getRequestURI().endsWith(STREAMING_PATH_SUFFIX);
+    }
+
     @Override
     public void init(FilterConfig filterConfig) throws ServletException {
         // NOOP - 初始化逻辑
@@ -0,0 +1,51 @@
+package com.example.common.id;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Data;
+
+/**
+ * 实体主键生成配置
+ * <p>
+ * 默认沿用数据库自增主键；切换为 {@link Strategy#SNOWFLAKE} 后主键在插入前由应用生成，
+ * Hibernate 可以对插入做 JDBC 批处理，客户端也可以预先分配 ID。
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.id")
+public class IdGeneratorProperties {
+
+    /**
+     * 主键生成策略
+     */
+    private Strategy strategy = Strategy.IDENTITY;
+
+    /**
+     * 固定的节点 ID（0 ~ 1023），为空时通过 Redis 租约自动分配
+     */
+    private Integer nodeId;
+
+    /**
+     * 节点 ID 租约有效期，每隔 1/3 有效期续约一次
+     */
+    private Duration leaseTtl = Duration.ofSeconds(30);
+
+    /**
+     * 允许等待的最大时钟回拨，超出时拒绝生成 ID
+     */
+    private Duration maxClockBackward = Duration.ofMillis(10);
+
+    public enum Strategy {
+        /**
+         * 数据库自增主键
+         */
+        IDENTITY,
+        /**
+         * 64 位时间有序 ID：41 位毫秒时间戳 + 10 位节点 ID + 12 位序列号
+         */
+        SNOWFLAKE
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.common.id;
+
+import static java.lang.annotation.ElementType.FIELD;
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+/**
+ * 标记主键由 {@link SnowflakeIdentifierGenerator} 生成
+ * <p>
+ * 实际策略由 {@code app.id.strategy} 决定：{@code identity} 时与 {@code @GeneratedValue(strategy = IDENTITY)} 等价，
+ * {@code snowflake} 时在插入前生成时间有序的 64 位 ID。主键类型必须为 {@link Long}。
+ */
+@IdGeneratorType(SnowflakeIdentifierGenerator.class)
+@Retention(RUNTIME)
+@Target({FIELD, METHOD})
+public @interface SnowflakeId {
+}
@@ -0,0 +1,262 @@
+package com.example.common.id;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 64 位时间有序 ID 生成器（Snowflake）
+ * <p>
+ * ID 结构：1 位符号位 + 41 位毫秒时间戳（相对 {@link #EPOCH}）+ 10 位节点 ID + 12 位序列号，
+ * 单节点每毫秒最多生成 4096 个 ID，整体随时间递增，写入 InnoDB 聚簇索引时始终追加在末尾。
+ * <p>
+ * 节点 ID 通过 Redis 租约分配：{@code SET NX PX} 抢占一个空闲节点并定期续约，
+ * 续约时同时记录该节点最后使用的时间戳，新实例接手同一节点时从该时间戳之后开始生成，避免与前任重复。
+ * 租约丢失或过期后，下一次生成 ID 时会重新抢占。所有 Redis 操作都在租约线程中执行，
+ * 不会被当前线程上的 Redis 事务（MULTI）吞掉返回值。
+ * <p>
+ * 时钟回拨不超过 {@code max-clock-backward} 时等待时钟追上，超出时抛出异常而不是生成可能重复的 ID。
+ */
+@Slf4j
+@Component
+public class SnowflakeIdGenerator {
+
+    /**
+     * 时间戳起点：2024-01-01T00:00:00Z
+     */
+    public static final long EPOCH = Instant.parse("2024-01-01T00:00:00Z").toEpochMilli();
+
+    private static final int NODE_BITS = 10;
+    private static final int SEQUENCE_BITS = 12;
+    private static final int MAX_NODE_ID = (1 << NODE_BITS) - 1;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    private static final String NODE_KEY_PREFIX = "id:snowflake:node:";
+    private static final String LAST_TIMESTAMP_SUFFIX = ":last";
+
+    /**
+     * 续约脚本：租约仍属于当前实例时延长有效期并记录最后使用的时间戳，返回 1，否则返回 0
+     */
+    private static final RedisScript<Long> RENEW_SCRIPT = new DefaultRedisScript<>("""
+            if redis.call('GET', KEYS[1]) ~= ARGV[1] then
+                return 0
+            end
+            redis.call('PEXPIRE', KEYS[1], ARGV[2])
+            redis.call('SET', KEYS[2], ARGV[3])
+            return 1
+            """, Long.class);
+
+    /**
+     * 释放脚本：租约仍属于当前实例时删除租约并记录最后使用的时间戳
+     */
+    private static final RedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>("""
+            if redis.call('GET', KEYS[1]) ~= ARGV[1] then
+                return 0
+            end
+            redis.call('SET', KEYS[2], ARGV[2])
+            return redis.call('DEL', KEYS[1])
+            """, Long.class);
+
+    private final IdGeneratorProperties properties;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final ScheduledExecutorService leaseExecutor;
+    private final Clock clock;
+    private final String instanceId = UUID.randomUUID().toString();
+
+    /**
+     * 当前持有的节点 ID，-1 表示尚未持有
+     */
+    private volatile int nodeId = -1;
+    /**
+     * 租约在本地视角下的过期时间，Redis 不可用导致无法续约时，超过该时间即停止使用该节点
+     */
+    private volatile long leaseExpiresAt;
+    /**
+     * 最后一次生成 ID 的时间戳，只在 {@link #nextId()} 中写入，续约线程只读
+     */
+    private volatile long lastTimestamp = -1L;
+    private long sequence;
+
+    @Autowired
+    public SnowflakeIdGenerator(IdGeneratorProperties properties, StringRedisTemplate stringRedisTemplate) {
+        this(properties, stringRedisTemplate, Clock.systemUTC());
+    }
+
+    SnowflakeIdGenerator(IdGeneratorProperties properties, StringRedisTemplate stringRedisTemplate, Clock clock) {
+        this.properties = properties;
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.clock = clock;
+        this.leaseExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "snowflake-node-lease");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * 生成下一个 ID
+     *
+     * @throws IllegalStateException 如果无法获取节点 ID，或时钟回拨超出允许范围
+     */
+    public synchronized long nextId() {
+        int node = requireNodeId();
+
+        long now = clock.millis();
+        if (now < lastTimestamp) {
+            long backward = lastTimestamp - now;
+            if (backward > properties.getMaxClockBackward().toMillis()) {
+                throw new IllegalStateException("时钟回拨 %d ms，拒绝生成 ID".formatted(backward));
+            }
+            log.warn("检测到时钟回拨 {} ms，等待时钟追上", backward);
+            now = waitUntil(lastTimestamp);
+        }
+
+        if (now == lastTimestamp) {
+            sequence = (sequence + 1) & SEQUENCE_MASK;
+            if (sequence == 0) {
+                // 当前毫秒的序列号已用完，等到下一毫秒
+                now = waitUntil(lastTimestamp + 1);
+            }
+        } else {
+            sequence = 0;
+        }
+        lastTimestamp = now;
+
+        return ((now - EPOCH) << (NODE_BITS + SEQUENCE_BITS)) | ((long) node << SEQUENCE_BITS) | sequence;
+    }
+
+    /**
+     * 从 ID 中解析出生成时间
+     */
+    public static Instant getTimestamp(long id) {
+        return Instant.ofEpochMilli((id >>> (NODE_BITS + SEQUENCE_BITS)) + EPOCH);
+    }
+
+    private int requireNodeId() {
+        if (nodeId >= 0 && (properties.getNodeId() != null || clock.millis() < leaseExpiresAt)) {
+            return nodeId;
+        }
+        if (nodeId >= 0) {
+            log.error("节点 ID 租约已过期 - node: {}, 重新申请", nodeId);
+            nodeId = -1;
+        }
+
+        if (properties.getNodeId() != null) {
+            int configured = properties.getNodeId();
+            if (configured < 0 || configured > MAX_NODE_ID) {
+                throw new IllegalStateException("节点 ID 超出范围 [0, %d]: %d".formatted(MAX_NODE_ID, configured));
+            }
+            nodeId = configured;
+            log.info("使用配置的 Snowflake 节点 ID: {}", nodeId);
+            return nodeId;
+        }
+
+        try {
+            Lease lease = leaseExecutor.submit(this::acquireLease).get();
+            // 接手的节点可能刚被其他实例使用过，从其最后使用的时间戳之后开始生成
+            lastTimestamp = Math.max(lastTimestamp, lease.lastTimestamp());
+            nodeId = lease.nodeId();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while acquiring snowflake node id", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("申请 Snowflake 节点 ID 失败: " + e.getCause().getMessage(), e.getCause());
+        }
+        return nodeId;
+    }
+
+    /**
+     * 从随机位置开始依次尝试抢占空闲节点，成功后启动定期续约
+     */
+    private Lease acquireLease() {
+        long ttl = properties.getLeaseTtl().toMillis();
+        int start = ThreadLocalRandom.current().nextInt(MAX_NODE_ID + 1);
+        for (int i = 0; i <= MAX_NODE_ID; i++) {
+            int candidate = (start + i) & MAX_NODE_ID;
+            Boolean acquired = stringRedisTemplate.opsForValue()
+                    .setIfAbsent(nodeKey(candidate), instanceId, properties.getLeaseTtl());
+            if (!Boolean.TRUE.equals(acquired)) {
+                continue;
+            }
+
+            String last = stringRedisTemplate.opsForValue().get(nodeKey(candidate) + LAST_TIMESTAMP_SUFFIX);
+            leaseExpiresAt = clock.millis() + ttl;
+            leaseExecutor.schedule(() -> renewLease(candidate), ttl / 3, TimeUnit.MILLISECONDS);
+            log.info("已申请 Snowflake 节点 ID: {}, 租约有效期: {}", candidate, properties.getLeaseTtl());
+            return new Lease(candidate, last == null ? -1L : Long.parseLong(last));
+        }
+        throw new IllegalStateException("没有空闲的 Snowflake 节点 ID");
+    }
+
+    private void renewLease(int node) {
+        if (node != nodeId) {
+            // 租约已过期并被放弃，停止续约
+            return;
+        }
+        long ttl = properties.getLeaseTtl().toMillis();
+        long renewAt = clock.millis();
+        try {
+            Long renewed = stringRedisTemplate.execute(RENEW_SCRIPT,
+                    List.of(nodeKey(node), nodeKey(node) + LAST_TIMESTAMP_SUFFIX),
+                    instanceId, String.valueOf(ttl), String.valueOf(lastTimestamp));
+            if (renewed == null || renewed == 0L) {
+                log.error("Snowflake 节点 ID 租约已被其他实例占用 - node: {}", node);
+                leaseExpiresAt = 0;
+                return;
+            }
+            leaseExpiresAt = renewAt + ttl;
+        } catch (Exception e) {
+            // 暂时无法续约时继续使用到本地过期时间为止
+            log.warn("Snowflake 节点 ID 续约失败 - node: {}: {}", node, e.getMessage());
+        }
+        leaseExecutor.schedule(() -> renewLease(node), ttl / 3, TimeUnit.MILLISECONDS);
+    }
+
+    private record Lease(int nodeId, long lastTimestamp) {
+    }
+
+    private long waitUntil(long timestamp) {
+        long now = clock.millis();
+        while (now < timestamp) {
+            Thread.onSpinWait();
+            now = clock.millis();
+        }
+        return now;
+    }
+
+    private static String nodeKey(int node) {
+        return NODE_KEY_PREFIX + node;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        leaseExecutor.shutdownNow();
+        int node = nodeId;
+        if (node < 0 || properties.getNodeId() != null) {
+            return;
+        }
+        try {
+            stringRedisTemplate.execute(RELEASE_SCRIPT,
+                    List.of(nodeKey(node), nodeKey(node) + LAST_TIMESTAMP_SUFFIX),
+                    instanceId, String.valueOf(lastTimestamp));
+            log.info("已释放 Snowflake 节点 ID: {}", node);
+        } catch (Exception e) {
+            log.warn("释放 Snowflake 节点 ID 失败 - node: {}: {}", node, e.getMessage());
+        }
+    }
+}
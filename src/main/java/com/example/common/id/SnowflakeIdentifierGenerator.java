@@ -0,0 +1,70 @@
+package com.example.common.id;
+
+import java.lang.reflect.Member;
+import java.util.EnumSet;
+
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.config.spi.StandardConverters;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.generator.EventTypeSets;
+import org.hibernate.generator.GeneratorCreationContext;
+import org.hibernate.id.IdentityGenerator;
+import org.hibernate.resource.beans.container.spi.ManagedBean;
+import org.hibernate.resource.beans.spi.ManagedBeanRegistry;
+
+import com.example.common.id.IdGeneratorProperties.Strategy;
+
+/**
+ * 可在数据库自增和 Snowflake 之间切换的 Hibernate 主键生成器
+ * <p>
+ * 策略在启动时从 Hibernate 配置项 {@value #STRATEGY_SETTING} 读取（由 {@code IdGeneratorConfig} 根据
+ * {@code app.id.strategy} 写入），整个运行期间保持不变：
+ * <ul>
+ * <li>{@code IDENTITY}：完全沿用 {@link IdentityGenerator}，主键由数据库在插入时生成</li>
+ * <li>{@code SNOWFLAKE}：插入前调用 {@link SnowflakeIdGenerator} 生成主键，Hibernate 可以批量插入；
+ * 实体上已有主键时保留该值，以支持客户端预分配 ID</li>
+ * </ul>
+ * 两种策略写入的是同一个 BIGINT 自增列，可以随时切换。
+ */
+public class SnowflakeIdentifierGenerator extends IdentityGenerator implements BeforeExecutionGenerator {
+
+    public static final String STRATEGY_SETTING = "app.id.strategy";
+
+    private final boolean snowflake;
+    private final ManagedBean<SnowflakeIdGenerator> idGenerator;
+
+    public SnowflakeIdentifierGenerator(SnowflakeId config, Member member, GeneratorCreationContext context) {
+        String strategy = context.getServiceRegistry().requireService(ConfigurationService.class)
+                .getSetting(STRATEGY_SETTING, StandardConverters.STRING, Strategy.IDENTITY.name());
+        this.snowflake = Strategy.SNOWFLAKE.name().equalsIgnoreCase(strategy);
+        // 通过 Spring 容器获取生成器，实例在第一次生成 ID 时才解析
+        this.idGenerator = snowflake
+                ? context.getServiceRegistry().requireService(ManagedBeanRegistry.class).getBean(SnowflakeIdGenerator.class)
+                : null;
+    }
+
+    @Override
+    public boolean generatedOnExecution() {
+        return !snowflake;
+    }
+
+    @Override
+    public boolean allowAssignedIdentifiers() {
+        return snowflake;
+    }
+
+    @Override
+    public EnumSet<EventType> getEventTypes() {
+        return EventTypeSets.INSERT_ONLY;
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object owner, Object currentValue, EventType eventType) {
+        if (currentValue != null) {
+            return currentValue;
+        }
+        return idGenerator.getBeanInstance().nextId();
+    }
+}
@@ -0,0 +1,438 @@
+package com.example.common.search;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.StatelessSession;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.convert.support.DefaultConversionService;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.domain.base.BaseEntity;
+import com.example.domain.base.SoftDeletableEntity;
+
+import jakarta.annotation.Nullable;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 实体搜索索引
+ * <p>
+ * 为带有 {@link Searchable} 属性的实体各维护一个 {@link NgramIndex}，替代 {@code LIKE '%kw%'} 全表扫描：
+ * <ul>
+ * <li>启动完成后通过 {@link StatelessSession} 流式读取全表，构建新的索引后整体替换，不经过持久化上下文和二级缓存；
+ * 构建期间发生变更的实体在替换后从数据库重新加载</li>
+ * <li>通过 Hibernate 提交后事件同步本实例的新增、修改和删除，软删除的实体从索引中移除</li>
+ * <li>变更的实体 ID 通过 Redis 广播，其他实例收到后从数据库重新加载这些实体</li>
+ * <li>绕过实体事件的批量语句需调用 {@link #refresh(Class, Collection)}，按 {@code refresh-batch-size}
+ * 分批用 {@code id IN (...)} 加载，每批只发一条通知</li>
+ * </ul>
+ * 索引常驻内存，每个字符约产生 3 个 gram，适合用户、配置这类中等规模的表。每个实体最多索引
+ * {@code max-documents} 个文档，超出后该实体的索引清空并停用。首次构建完成前、构建失败或索引停用时
+ * {@link #search} 返回 empty，由调用方回退到数据库查询。
+ */
+@Slf4j
+@Component
+public class EntitySearchIndex implements MessageListener {
+
+    private static final String CHANNEL = "search:index:refresh";
+    private static final String ID_SEPARATOR = ",";
+
+    private final SessionFactoryImplementor sessionFactory;
+    private final SearchIndexProperties properties;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final String instanceId = UUID.randomUUID().toString();
+    /**
+     * 实体名 -> 索引定义
+     */
+    private final Map<String, IndexedEntity> indexes = new ConcurrentHashMap<>();
+    /**
+     * 广播和重新加载在独立线程中进行，不占用业务线程，也不受其事务状态影响
+     */
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "entity-search-index");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public EntitySearchIndex(EntityManagerFactory entityManagerFactory, SearchIndexProperties properties,
+                             StringRedisTemplate stringRedisTemplate, RedisMessageListenerContainer listenerContainer) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        this.properties = properties;
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.listenerContainer = listenerContainer;
+    }
+
+    @PostConstruct
+    public void init() {
+        sessionFactory.getMappingMetamodel().forEachEntityDescriptor(persister -> {
+            List<String> searchable = searchableProperties(persister.getMappedClass());
+            if (!searchable.isEmpty()) {
+                indexes.put(persister.getEntityName(), new IndexedEntity(persister, searchable));
+                log.info("Search index registered - {}: {}", persister.getEntityName(), searchable);
+            }
+        });
+        if (indexes.isEmpty()) {
+            return;
+        }
+
+        EntityChangeListener listener = new EntityChangeListener();
+        EventListenerRegistry registry = sessionFactory.getServiceRegistry().requireService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, listener);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, listener);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, listener);
+        listenerContainer.addMessageListener(this, new ChannelTopic(CHANNEL));
+    }
+
+    /**
+     * 从数据库重建所有索引
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        indexes.values().forEach(this::rebuild);
+    }
+
+    /**
+     * 搜索任一 {@link Searchable} 属性包含关键词（不区分大小写）的实体
+     *
+     * @param entityClass 实体类型
+     * @param keyword     关键词
+     * @return 按 ID 升序排列的实体 ID；索引尚未构建完成，或文档数超出 {@code max-documents} 已停用时返回 empty，
+     * 调用方应回退到数据库查询
+     * @throws IllegalArgumentException 如果该实体没有 {@link Searchable} 属性
+     */
+    @SuppressWarnings("unchecked")
+    public <ID> Optional<List<ID>> search(Class<?> entityClass, String keyword) {
+        IndexedEntity indexed = indexes.get(sessionFactory.getMappingMetamodel().getEntityDescriptor(entityClass).getEntityName());
+        if (indexed == null) {
+            throw new IllegalArgumentException("Entity has no @Searchable properties: " + entityClass.getName());
+        }
+        if (!indexed.ready) {
+            return Optional.empty();
+        }
+        return Optional.of((List<ID>) (List<?>) indexed.index.search(keyword));
+    }
+
+    /**
+     * 从数据库分批重新加载指定实体并更新索引，每批通知其他实例一次，在事务中调用时等到事务提交后执行
+     *
+     * @param entityClass 实体类型
+     * @param ids         实体 ID
+     */
+    public void refresh(Class<?> entityClass, Collection<?> ids) {
+        IndexedEntity indexed = indexes.get(sessionFactory.getMappingMetamodel().getEntityDescriptor(entityClass).getEntityName());
+        if (indexed == null || ids.isEmpty()) {
+            return;
+        }
+        List<?> snapshot = List.copyOf(ids);
+        int batchSize = Math.max(1, properties.getRefreshBatchSize());
+        Runnable action = () -> {
+            for (int from = 0; from < snapshot.size(); from += batchSize) {
+                List<?> batch = snapshot.subList(from, Math.min(from + batchSize, snapshot.size()));
+                worker.execute(() -> {
+                    reload(indexed, batch);
+                    publish(indexed, batch);
+                });
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String[] parts = new String(message.getBody()).split("\\|", 3);
+        if (parts.length != 3 || instanceId.equals(parts[0])) {
+            return;
+        }
+        IndexedEntity indexed = indexes.get(parts[1]);
+        if (indexed == null) {
+            return;
+        }
+        Class<?> idType = indexed.persister.getIdentifierType().getReturnedClass();
+        List<Object> ids = new ArrayList<>();
+        for (String id : parts[2].split(ID_SEPARATOR)) {
+            ids.add(DefaultConversionService.getSharedInstance().convert(id, idType));
+        }
+        worker.execute(() -> reload(indexed, ids));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        worker.shutdown();
+    }
+
+    /**
+     * 把全表读入一个新的索引，成功后替换当前索引；失败时保留原来的索引和状态
+     */
+    private void rebuild(IndexedEntity indexed) {
+        long start = System.currentTimeMillis();
+        String entityName = indexed.persister.getEntityName();
+        Set<Object> changed = ConcurrentHashMap.newKeySet();
+        indexed.changedDuringRebuild = changed;
+        try {
+            NgramIndex<Comparable<Object>> fresh = new NgramIndex<>();
+            try (StatelessSession session = sessionFactory.openStatelessSession();
+                 ScrollableResults<?> results = session.createSelectionQuery("from " + entityName, Object.class)
+                         .setFetchSize(1000)
+                         .scroll(ScrollMode.FORWARD_ONLY)) {
+                while (results.next()) {
+                    Object entity = results.get();
+                    if (!index(indexed, fresh, idOf(entity), entity)) {
+                        return;
+                    }
+                }
+            }
+            indexed.index = fresh;
+            indexed.ready = true;
+            log.info("Search index rebuilt - {}: {} documents in {} ms", entityName, fresh.size(), System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            log.error("Failed to rebuild search index for {}, searches {}", entityName,
+                    indexed.ready ? "keep using the previous index" : "fall back to the database", e);
+        } finally {
+            indexed.changedDuringRebuild = null;
+        }
+        // 扫描期间提交的变更可能没有被读到，替换后按最新数据重新加载
+        if (indexed.ready && !changed.isEmpty()) {
+            List<Object> ids = List.copyOf(changed);
+            int batchSize = Math.max(1, properties.getRefreshBatchSize());
+            for (int from = 0; from < ids.size(); from += batchSize) {
+                reload(indexed, ids.subList(from, Math.min(from + batchSize, ids.size())));
+            }
+        }
+    }
+
+    /**
+     * 用一条 {@code id IN (...)} 查询重新加载一批实体，查不到的（已删除或已软删除）从索引中移除
+     */
+    private void reload(IndexedEntity indexed, List<?> ids) {
+        if (!indexed.accept(ids)) {
+            return;
+        }
+        EntityPersister persister = indexed.persister;
+        String hql = "from " + persister.getEntityName() + " e where e." + persister.getIdentifierPropertyName() + " in :ids";
+        try (StatelessSession session = sessionFactory.openStatelessSession()) {
+            Set<Object> found = new HashSet<>();
+            for (Object entity : session.createSelectionQuery(hql, Object.class).setParameterList("ids", ids).getResultList()) {
+                Object id = idOf(entity);
+                found.add(id);
+                index(indexed, indexed.index, id, entity);
+            }
+            for (Object id : ids) {
+                if (!found.contains(id)) {
+                    indexed.index.remove(asKey(id));
+                }
+            }
+        } catch (Exception e) {
+            log.warn("Failed to refresh search index for {} ({} ids): {}", persister.getEntityName(), ids.size(), e.getMessage());
+        }
+    }
+
+    /**
+     * 把实体写入指定索引，软删除的实体从索引中移除
+     *
+     * @return 文档数超出上限、索引已停用时返回 false
+     */
+    private boolean index(IndexedEntity indexed, NgramIndex<Comparable<Object>> index, Object id, Object entity) {
+        if (entity instanceof SoftDeletableEntity<?> softDeletable && Boolean.TRUE.equals(softDeletable.getDeleted())) {
+            index.remove(asKey(id));
+            return true;
+        }
+        if (!index.contains(asKey(id)) && index.size() >= properties.getMaxDocuments()) {
+            overflow(indexed);
+            return false;
+        }
+        List<String> values = new ArrayList<>(indexed.properties.size());
+        for (String property : indexed.properties) {
+            Object value = indexed.persister.getPropertyValue(entity, property);
+            values.add(value == null ? null : value.toString());
+        }
+        index.put(asKey(id), values);
+        return true;
+    }
+
+    /**
+     * 文档数超出上限时丢弃并停用索引，释放内存，搜索回退到数据库，直到下次重建时文档数回到上限以内
+     */
+    private void overflow(IndexedEntity indexed) {
+        synchronized (indexed) {
+            boolean wasReady = indexed.ready;
+            indexed.ready = false;
+            indexed.index = new NgramIndex<>();
+            if (wasReady || indexed.changedDuringRebuild != null) {
+                log.warn("Search index disabled - {} exceeds {} documents, searches fall back to the database",
+                        indexed.persister.getEntityName(), properties.getMaxDocuments());
+            }
+        }
+    }
+
+    /**
+     * 通知其他实例重新加载一批实体，消息格式为 {@code 实例ID|实体名|ID1,ID2,...}
+     */
+    private void publish(IndexedEntity indexed, List<?> ids) {
+        String joined = ids.stream().map(String::valueOf).collect(Collectors.joining(ID_SEPARATOR));
+        try {
+            stringRedisTemplate.convertAndSend(CHANNEL, instanceId + "|" + indexed.persister.getEntityName() + "|" + joined);
+        } catch (Exception e) {
+            log.warn("Failed to publish search index refresh for {} ({} ids): {}",
+                    indexed.persister.getEntityName(), ids.size(), e.getMessage());
+        }
+    }
+
+    private static Object idOf(Object entity) {
+        return ((BaseEntity<?>) entity).getId();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Comparable<Object> asKey(Object id) {
+        return (Comparable<Object>) id;
+    }
+
+    private static List<String> searchableProperties(Class<?> type) {
+        List<String> properties = new ArrayList<>();
+        for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+            for (Field field : current.getDeclaredFields()) {
+                if (field.isAnnotationPresent(Searchable.class)) {
+                    properties.add(field.getName());
+                }
+            }
+        }
+        return properties;
+    }
+
+    /**
+     * 单个实体的索引及其状态
+     */
+    private static final class IndexedEntity {
+
+        private final EntityPersister persister;
+        private final List<String> properties;
+        /**
+         * 当前使用的索引，重建完成后整体替换
+         */
+        private volatile NgramIndex<Comparable<Object>> index = new NgramIndex<>();
+        /**
+         * 索引是否完整可用：首次重建成功后为 true，文档数超出上限时为 false，直到下次重建成功
+         */
+        private volatile boolean ready;
+        /**
+         * 重建期间发生变更的实体 ID，不在重建时为 null
+         */
+        @Nullable
+        private volatile Set<Object> changedDuringRebuild;
+
+        private IndexedEntity(EntityPersister persister, List<String> properties) {
+            this.persister = persister;
+            this.properties = properties;
+        }
+
+        /**
+         * 记录重建期间的变更
+         *
+         * @return 当前索引是否可用，不可用时无需更新
+         */
+        private boolean accept(Collection<?> ids) {
+            Set<Object> changed = changedDuringRebuild;
+            if (changed != null) {
+                changed.addAll(ids);
+            }
+            return ready;
+        }
+    }
+
+    /**
+     * 同步本实例提交的变更，并通知其他实例
+     */
+    private class EntityChangeListener implements PostCommitInsertEventListener, PostCommitUpdateEventListener,
+            PostCommitDeleteEventListener {
+
+        @Override
+        public void onPostInsert(PostInsertEvent event) {
+            changed(event.getPersister(), event.getId(), event.getEntity(), false);
+        }
+
+        @Override
+        public void onPostUpdate(PostUpdateEvent event) {
+            changed(event.getPersister(), event.getId(), event.getEntity(), false);
+        }
+
+        @Override
+        public void onPostDelete(PostDeleteEvent event) {
+            changed(event.getPersister(), event.getId(), event.getEntity(), true);
+        }
+
+        private void changed(EntityPersister persister, Object id, Object entity, boolean deleted) {
+            IndexedEntity indexed = indexes.get(persister.getEntityName());
+            if (indexed == null) {
+                return;
+            }
+            if (indexed.accept(List.of(id))) {
+                if (deleted) {
+                    indexed.index.remove(asKey(id));
+                } else {
+                    index(indexed, indexed.index, id, entity);
+                }
+            }
+            worker.execute(() -> publish(indexed, List.of(id)));
+        }
+
+        @Override
+        public void onPostInsertCommitFailed(PostInsertEvent event) {
+        }
+
+        @Override
+        public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+        }
+
+        @Override
+        public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+        }
+
+        @Override
+        public boolean requiresPostCommitHandling(EntityPersister persister) {
+            return indexes.containsKey(persister.getEntityName());
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.common.search;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 内存 n-gram 倒排索引，用于不区分大小写的子串搜索
+ * <p>
+ * 每个字段按 1 ~ {@value #MAX_GRAM} 个字符切分为 gram，gram 到文档 ID 的倒排表常驻内存：
+ * <ul>
+ * <li>关键词不超过 {@value #MAX_GRAM} 个字符时，关键词本身就是一个 gram，倒排表即为结果</li>
+ * <li>更长的关键词取其所有 {@value #MAX_GRAM}-gram 中倒排表最短的一个作为候选集，再逐个校验原文是否包含关键词</li>
+ * </ul>
+ * 查询开销只与最稀有 gram 的命中数有关，与文档总数无关。写操作串行执行，读操作无锁。
+ *
+ * @param <K> 文档 ID 类型
+ */
+public class NgramIndex<K extends Comparable<? super K>> {
+
+    private static final int MAX_GRAM = 3;
+
+    /**
+     * 拼接多个字段时使用的分隔符，保证关键词不会跨字段匹配
+     */
+    private static final char FIELD_SEPARATOR = '\u0000';
+
+    private final Map<String, Set<K>> postings = new ConcurrentHashMap<>();
+    private final Map<K, String> documents = new ConcurrentHashMap<>();
+
+    /**
+     * 添加或替换文档
+     *
+     * @param id     文档 ID
+     * @param fields 需要索引的字段值，null 会被忽略
+     */
+    public synchronized void put(K id, List<String> fields) {
+        remove(id);
+        List<String> normalized = fields.stream().filter(field -> field != null && !field.isEmpty()).map(NgramIndex::normalize).toList();
+        documents.put(id, String.join(String.valueOf(FIELD_SEPARATOR), normalized));
+        for (String gram : grams(normalized)) {
+            postings.computeIfAbsent(gram, k -> ConcurrentHashMap.newKeySet()).add(id);
+        }
+    }
+
+    /**
+     * 删除文档
+     */
+    public synchronized void remove(K id) {
+        String document = documents.remove(id);
+        if (document == null) {
+            return;
+        }
+        for (String gram : grams(List.of(document.split(String.valueOf(FIELD_SEPARATOR))))) {
+            Set<K> ids = postings.get(gram);
+            if (ids != null) {
+                ids.remove(id);
+                if (ids.isEmpty()) {
+                    postings.remove(gram);
+                }
+            }
+        }
+    }
+
+    /**
+     * 清空索引
+     */
+    public synchronized void clear() {
+        postings.clear();
+        documents.clear();
+    }
+
+    /**
+     * 查找任一字段包含关键词的文档
+     *
+     * @param keyword 关键词，不区分大小写
+     * @return 按 ID 升序排列的文档 ID
+     */
+    public List<K> search(String keyword) {
+        String query = normalize(keyword.trim());
+        if (query.isEmpty()) {
+            return List.of();
+        }
+
+        List<K> result;
+        if (query.length() <= MAX_GRAM) {
+            result = new ArrayList<>(postings.getOrDefault(query, Set.of()));
+        } else {
+            Set<K> candidates = rarestPosting(query);
+            result = new ArrayList<>();
+            for (K id : candidates) {
+                String document = documents.get(id);
+                if (document != null && document.contains(query)) {
+                    result.add(id);
+                }
+            }
+        }
+        result.sort(Comparator.naturalOrder());
+        return result;
+    }
+
+    /**
+     * 是否已索引指定文档
+     */
+    public boolean contains(K id) {
+        return documents.containsKey(id);
+    }
+
+    /**
+     * 已索引的文档数
+     */
+    public int size() {
+        return documents.size();
+    }
+
+    private Set<K> rarestPosting(String query) {
+        Set<K> rarest = null;
+        for (int i = 0; i + MAX_GRAM <= query.length(); i++) {
+            Set<K> ids = postings.get(query.substring(i, i + MAX_GRAM));
+            if (ids == null) {
+                return Set.of();
+            }
+            if (rarest == null || ids.size() < rarest.size()) {
+                rarest = ids;
+            }
+        }
+        return rarest == null ? Set.of() : rarest;
+    }
+
+    private static Set<String> grams(List<String> fields) {
+        Set<String> grams = new HashSet<>();
+        for (String field : fields) {
+            for (int i = 0; i < field.length(); i++) {
+                for (int n = 1; n <= MAX_GRAM && i + n <= field.length(); n++) {
+                    grams.add(field.substring(i, i + n));
+                }
+            }
+        }
+        return grams;
+    }
+
+    private static String normalize(String value) {
+        return value.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.common.search;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Data;
+
+/**
+ * 内存搜索索引配置
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.search-index")
+public class SearchIndexProperties {
+
+    /**
+     * 每个实体最多索引的文档数。索引常驻堆内存，每个字符约产生 3 个 gram，一条几十个字符的记录约占用数 KB；
+     * 超出后该实体的索引被清空并停用，搜索回退到数据库查询，直到下次重建时文档数回到上限以内
+     */
+    private int maxDocuments = 100_000;
+
+    /**
+     * 批量刷新时每次从数据库加载、每条 Redis 通知包含的实体数
+     */
+    private int refreshBatchSize = 500;
+}
@@ -0,0 +1,16 @@
+package com.example.common.search;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 标记实体的字符串属性加入内存 n-gram 索引，支持不区分大小写的子串搜索
+ *
+ * @see EntitySearchIndex
+ */
+@Target(ElementType.FIELD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Searchable {
+}
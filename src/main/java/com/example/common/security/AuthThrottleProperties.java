@@ -0,0 +1,54 @@
+package com.example.common.security;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Data;
+
+/**
+ * 登录/注册限流配置
+ * <p>
+ * 分两层：本地令牌桶拦截单实例上的突发流量，Redis 滑动窗口保证整个集群的总量限制。
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.security.throttle")
+public class AuthThrottleProperties {
+
+    /**
+     * 是否启用限流
+     */
+    private boolean enabled = true;
+
+    /**
+     * 本地令牌桶容量（每个 IP 或用户名），即允许的最大突发请求数
+     */
+    private int localCapacity = 10;
+
+    /**
+     * 本地令牌桶每分钟补充的令牌数
+     */
+    private int localRefillPerMinute = 30;
+
+    /**
+     * 本地令牌桶最多保留的 key 数量，防止大量伪造 IP 撑爆内存
+     */
+    private long localMaxKeys = 100_000;
+
+    /**
+     * 集群滑动窗口长度
+     */
+    private Duration window = Duration.ofMinutes(1);
+
+    /**
+     * 集群范围内单个 IP 在窗口内允许的请求数
+     */
+    private int ipLimit = 60;
+
+    /**
+     * 集群范围内单个用户名在窗口内允许的登录尝试次数
+     */
+    private int usernameLimit = 10;
+}
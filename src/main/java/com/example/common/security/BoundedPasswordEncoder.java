@@ -0,0 +1,37 @@
+package com.example.common.security;
+
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * 将密码哈希与校验转交给 {@link PasswordHashingExecutor} 执行的 {@link PasswordEncoder} 装饰器
+ * <p>
+ * 对调用方完全透明：{@code DaoAuthenticationProvider}、{@code AuthService}、{@code UserService}
+ * 仍然按普通 {@link PasswordEncoder} 使用，线程池饱和时会抛出
+ * {@link com.example.common.exception.TooManyRequestsException}。
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+    private final PasswordHashingExecutor executor;
+
+    public BoundedPasswordEncoder(PasswordEncoder delegate, PasswordHashingExecutor executor) {
+        this.delegate = delegate;
+        this.executor = executor;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return executor.execute("encode", () -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return executor.execute("matches", () -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        // 只解析哈希前缀和参数，不涉及哈希计算，无需进入线程池
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+}
@@ -0,0 +1,189 @@
+package com.example.common.security;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder.SecretKeyFactoryAlgorithm;
+import org.springframework.stereotype.Component;
+import org.springframework.util.Assert;
+
+import com.example.common.security.PasswordHashingProperties.Algorithm;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 根据当前机器性能校准成本参数的密码编码器工厂
+ * <p>
+ * 启动时对 BCrypt 和 Argon2 做小规模基准测试，选取单次哈希耗时不超过 {@code target-latency} 的最大成本参数，
+ * 使不同规格的实例上登录的 CPU 开销保持可预期。这两种算法把成本参数写在哈希值中，校验时使用哈希自带的参数，
+ * 因此各实例校准结果不同也能互相校验。PBKDF2 使用固定配置的 {@code pbkdf2-iterations}，不参与校准。
+ * 返回的 {@link DelegatingPasswordEncoder}：
+ * <ul>
+ * <li>新密码使用 {@code algorithm} 指定的算法，哈希值带 {@code {id}} 前缀</li>
+ * <li>可以校验所有支持的算法，以及历史上不带前缀的 BCrypt 哈希</li>
+ * <li>{@link PasswordEncoder#upgradeEncoding(String)} 在算法或成本参数落后时返回 {@code true}，
+ * 由登录流程负责重新哈希</li>
+ * </ul>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CalibratedPasswordEncoderFactory {
+
+    private static final String SAMPLE_PASSWORD = "calibration-sample-password";
+    private static final int SAMPLES = 3;
+
+    private static final int PBKDF2_SALT_LENGTH = 16;
+
+    private static final int ARGON2_SALT_LENGTH = 16;
+    private static final int ARGON2_HASH_LENGTH = 32;
+    private static final int ARGON2_PARALLELISM = 1;
+    private static final int ARGON2_MEMORY_KB = 1 << 14;
+    private static final int ARGON2_MIN_ITERATIONS = 2;
+
+    private final PasswordHashingProperties properties;
+
+    /**
+     * 创建委托密码编码器
+     */
+    public PasswordEncoder create() {
+        Map<String, PasswordEncoder> encoders = new HashMap<>();
+        encoders.put(Algorithm.BCRYPT.getId(), bcrypt());
+        encoders.put(Algorithm.PBKDF2.getId(), pbkdf2());
+        encoders.put(Algorithm.ARGON2.getId(), argon2());
+
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder(properties.getAlgorithm().getId(), encoders);
+        // 兼容历史上直接存储的、不带 {id} 前缀的 BCrypt 哈希，这类哈希在下次登录时会被升级
+        encoder.setDefaultPasswordEncoderForMatches(encoders.get(Algorithm.BCRYPT.getId()));
+        return encoder;
+    }
+
+    private PasswordEncoder bcrypt() {
+        int strength = properties.getMinBcryptStrength();
+        if (properties.isCalibrate() && properties.getAlgorithm() == Algorithm.BCRYPT) {
+            // 成本因子每加 1 耗时翻倍，逐级测量直到超出目标耗时
+            while (strength < properties.getMaxBcryptStrength()
+                    && measure(new BCryptPasswordEncoder(strength + 1)) <= targetNanos()) {
+                strength++;
+            }
+        }
+        log.info("Password encoder calibrated - bcrypt strength: {}", strength);
+        return new BCryptPasswordEncoder(strength);
+    }
+
+    private PasswordEncoder pbkdf2() {
+        int iterations = properties.getPbkdf2Iterations();
+        Assert.isTrue(iterations > 0, "pbkdf2Iterations must be greater than 0");
+        log.info("Password encoder configured - pbkdf2 iterations: {}", iterations);
+        return new Pbkdf2Encoder(iterations);
+    }
+
+    private PasswordEncoder argon2() {
+        int iterations = ARGON2_MIN_ITERATIONS;
+        if (properties.isCalibrate() && properties.getAlgorithm() == Algorithm.ARGON2) {
+            long baseline = measure(argon2(ARGON2_MIN_ITERATIONS));
+            iterations = scale(ARGON2_MIN_ITERATIONS, baseline, ARGON2_MIN_ITERATIONS);
+        }
+        log.info("Password encoder calibrated - argon2 iterations: {}, memory: {}KB", iterations, ARGON2_MEMORY_KB);
+        return argon2(iterations);
+    }
+
+    private static PasswordEncoder argon2(int iterations) {
+        return new Argon2PasswordEncoder(ARGON2_SALT_LENGTH, ARGON2_HASH_LENGTH, ARGON2_PARALLELISM,
+                ARGON2_MEMORY_KB, iterations);
+    }
+
+    /**
+     * 迭代次数与耗时成线性关系，按基准测量结果等比例换算出目标迭代次数
+     */
+    private int scale(int baselineIterations, long baselineNanos, int minIterations) {
+        long scaled = baselineIterations * targetNanos() / Math.max(baselineNanos, 1);
+        return (int) Math.max(minIterations, Math.min(scaled, Integer.MAX_VALUE));
+    }
+
+    private long targetNanos() {
+        return properties.getTargetLatency().toNanos();
+    }
+
+    /**
+     * 测量单次哈希耗时（纳秒），先预热一次，再取多次采样的中位数
+     */
+    private static long measure(PasswordEncoder encoder) {
+        encoder.encode(SAMPLE_PASSWORD);
+        long[] samples = new long[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            long start = System.nanoTime();
+            encoder.encode(SAMPLE_PASSWORD);
+            samples[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(samples);
+        return samples[SAMPLES / 2];
+    }
+
+    /**
+     * 在哈希值前记录迭代次数（{@code <iterations>$<hash>}）的 PBKDF2 编码器
+     * <p>
+     * {@link Pbkdf2PasswordEncoder} 不在哈希中保存迭代次数，只能用当前实例的参数校验。记录下来后，
+     * 调整 {@code pbkdf2-iterations} 不会让已有哈希失效；迭代次数低于当前配置、或没有记录迭代次数的哈希
+     * 由 {@link #upgradeEncoding(String)} 标记为需要升级，下次登录时重新哈希。没有记录迭代次数的哈希按当前配置校验。
+     */
+    private static final class Pbkdf2Encoder implements PasswordEncoder {
+
+        private static final char SEPARATOR = '$';
+
+        private final int iterations;
+        private final Map<Integer, PasswordEncoder> encoders = new ConcurrentHashMap<>();
+
+        private Pbkdf2Encoder(int iterations) {
+            this.iterations = iterations;
+        }
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            return iterations + String.valueOf(SEPARATOR) + encoder(iterations).encode(rawPassword);
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            if (encodedPassword == null || encodedPassword.isEmpty()) {
+                return false;
+            }
+            int separator = encodedPassword.indexOf(SEPARATOR);
+            if (separator < 0) {
+                return encoder(iterations).matches(rawPassword, encodedPassword);
+            }
+            int stored = iterationsOf(encodedPassword, separator);
+            return stored > 0 && encoder(stored).matches(rawPassword, encodedPassword.substring(separator + 1));
+        }
+
+        @Override
+        public boolean upgradeEncoding(String encodedPassword) {
+            if (encodedPassword == null || encodedPassword.isEmpty()) {
+                return false;
+            }
+            int separator = encodedPassword.indexOf(SEPARATOR);
+            return separator < 0 || iterationsOf(encodedPassword, separator) < iterations;
+        }
+
+        private PasswordEncoder encoder(int iterations) {
+            return encoders.computeIfAbsent(iterations, count -> new Pbkdf2PasswordEncoder("", PBKDF2_SALT_LENGTH, count,
+                    SecretKeyFactoryAlgorithm.PBKDF2WithHmacSHA256));
+        }
+
+        private static int iterationsOf(String encodedPassword, int separator) {
+            try {
+                return Integer.parseInt(encodedPassword, 0, separator, 10);
+            } catch (NumberFormatException e) {
+                return -1;
+            }
+        }
+    }
+}
@@ -2,7 +2,6 @@ package com.example.common.security;
 
 import java.time.Duration;
 import java.time.Instant;
-import java.time.temporal.ChronoUnit;
 import java.util.Date;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
@@ -21,9 +20,14 @@ public class JwtProperties {
     private String secret;
 
     /**
-     * Token 过期时间，默认 1 天
+     * Access Token 过期时间，建议设置为分钟级别（如 15m），配合 Refresh Token 轮换使用
      */
-    private Duration expiration;
+    private Duration expiration = Duration.ofMinutes(15);
+
+    /**
+     * Refresh Token 过期时间，默认 7 天
+     */
+    private Duration refreshExpiration = Duration.ofDays(7);
 
     /**
      * 签发者，默认为 ${spring.application.name}
@@ -33,7 +37,7 @@ public class JwtProperties {
     // Helper Methods
 
     public Date getExpirationDateSince(Instant now) {
-        return Date.from(now.plus(expiration.toDays(), ChronoUnit.DAYS));
+        return Date.from(now.plus(expiration));
     }
 
 }
@@ -0,0 +1,135 @@
+package com.example.common.security;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.springframework.stereotype.Component;
+
+import com.example.common.exception.TooManyRequestsException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 密码哈希专用执行器
+ * <p>
+ * 线程数固定、队列有界，饱和时通过 {@link ThreadPoolExecutor.AbortPolicy} 快速拒绝并抛出
+ * {@link TooManyRequestsException}，从而把密码哈希对 CPU 的占用限制在可控范围内，避免拖垮其他接口。
+ * <p>
+ * 暴露以下指标：
+ * <ul>
+ * <li>{@code password.hashing.queue.size} - 等待中的哈希任务数</li>
+ * <li>{@code password.hashing.active} - 正在执行的哈希任务数</li>
+ * <li>{@code password.hashing.rejected} - 因饱和或超时被拒绝的次数</li>
+ * <li>{@code password.hashing.wait} - 任务在队列中的等待时间</li>
+ * <li>{@code password.hashing.duration} - 哈希计算耗时，按 operation（encode/matches）区分</li>
+ * </ul>
+ */
+@Slf4j
+@Component
+public class PasswordHashingExecutor {
+
+    private final ThreadPoolExecutor executor;
+    private final PasswordHashingProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Counter rejectedCounter;
+    private final Timer waitTimer;
+
+    public PasswordHashingExecutor(PasswordHashingProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                properties.getThreads(),
+                properties.getThreads(),
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(properties.getQueueCapacity()),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hashing-" + threadIndex.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        Gauge.builder("password.hashing.queue.size", executor, e -> e.getQueue().size())
+                .description("等待中的密码哈希任务数")
+                .register(meterRegistry);
+        Gauge.builder("password.hashing.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("正在执行的密码哈希任务数")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("password.hashing.rejected")
+                .description("因线程池饱和或等待超时被拒绝的密码哈希请求数")
+                .register(meterRegistry);
+        this.waitTimer = Timer.builder("password.hashing.wait")
+                .description("密码哈希任务在队列中的等待时间")
+                .register(meterRegistry);
+
+        log.info("Password hashing executor initialized - threads: {}, queueCapacity: {}, timeout: {}",
+                properties.getThreads(), properties.getQueueCapacity(), properties.getTimeout());
+    }
+
+    /**
+     * 在哈希线程池中执行任务，并阻塞等待结果
+     *
+     * @param operation 操作名称，用于指标标签，如 encode、matches
+     * @param task      哈希任务
+     * @return 任务结果
+     * @throws TooManyRequestsException 如果线程池已饱和或等待超时
+     */
+    public <T> T execute(String operation, Supplier<T> task) {
+        Timer hashTimer = Timer.builder("password.hashing.duration")
+                .description("密码哈希计算耗时")
+                .tag("operation", operation)
+                .register(meterRegistry);
+
+        long submittedAt = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                waitTimer.record(System.nanoTime() - submittedAt, TimeUnit.NANOSECONDS);
+                return hashTimer.record(task);
+            });
+        } catch (RejectedExecutionException e) {
+            rejectedCounter.increment();
+            log.warn("Password hashing rejected, executor saturated - operation: {}, queued: {}",
+                    operation, executor.getQueue().size());
+            throw new TooManyRequestsException("服务繁忙，请稍后再试", e);
+        }
+
+        try {
+            return future.get(properties.getTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            rejectedCounter.increment();
+            log.warn("Password hashing timed out after {} - operation: {}", properties.getTimeout(), operation);
+            throw new TooManyRequestsException("服务繁忙，请稍后再试", e);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for password hashing", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Password hashing failed", cause);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.common.security;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Data;
+
+/**
+ * 密码哈希线程池配置
+ * <p>
+ * BCrypt 等算法是刻意设计成高 CPU 消耗的，放在 Tomcat 请求线程上执行时，登录高峰会占满所有工作线程，
+ * 导致其他廉价接口也一起超时。因此密码的哈希与校验统一交给一个按 CPU 核数定长、队列有界的线程池执行，
+ * 队列满时立即拒绝（429），而不是让请求无限排队。
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.security.password-hashing")
+public class PasswordHashingProperties {
+
+    /**
+     * 线程数，默认等于 CPU 核数。哈希是纯 CPU 计算，线程数超过核数只会增加上下文切换
+     */
+    private int threads = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * 等待队列容量，队列满后新的哈希请求会被立即拒绝
+     */
+    private int queueCapacity = 64;
+
+    /**
+     * 请求线程等待哈希结果的最长时间，超时按过载处理
+     */
+    private Duration timeout = Duration.ofSeconds(5);
+
+    /**
+     * 新密码使用的哈希算法，已存储的其他算法哈希仍可校验，并在登录成功后自动升级
+     */
+    private Algorithm algorithm = Algorithm.BCRYPT;
+
+    /**
+     * 启动时是否根据当前机器性能校准 BCrypt、Argon2 的成本参数，关闭时使用下限参数。
+     * 这两种算法的成本参数写在哈希值中，各实例校准结果不同也能互相校验
+     */
+    private boolean calibrate = true;
+
+    /**
+     * 单次哈希的目标耗时，校准时选取不超过该耗时的最大成本参数
+     */
+    private Duration targetLatency = Duration.ofMillis(250);
+
+    /**
+     * BCrypt 成本因子下限，校准结果不会低于该值
+     */
+    private int minBcryptStrength = 10;
+
+    /**
+     * BCrypt 成本因子上限，校准结果不会高于该值
+     */
+    private int maxBcryptStrength = 14;
+
+    /**
+     * PBKDF2 迭代次数，固定配置、不参与校准：集群内所有实例必须一致。
+     * 迭代次数记录在哈希值中，调高后旧哈希仍可校验，并在登录成功后升级
+     */
+    private int pbkdf2Iterations = 310_000;
+
+    /**
+     * 支持的密码哈希算法，{@link #getId()} 即存储在哈希值前缀 {@code {id}} 中的标识
+     */
+    public enum Algorithm {
+        BCRYPT("bcrypt"),
+        PBKDF2("pbkdf2"),
+        ARGON2("argon2");
+
+        private final String id;
+
+        Algorithm(String id) {
+            this.id = id;
+        }
+
+        public String getId() {
+            return id;
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.example.common.sql;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import jakarta.annotation.Nullable;
+
+/**
+ * 当前线程的 SQL 统计范围
+ * <p>
+ * 由 {@link SqlStatsFilter}（HTTP 请求）和 {@link SqlStatsAspect}（Service 方法）打开，可以嵌套，
+ * 每条语句同时计入当前线程上所有打开的范围。没有打开的范围时，记录操作直接返回，不做任何处理。
+ * <p>
+ * 语句按「形态」归类：去掉注释、合并空白，并把 {@code IN (?, ?, ...)} 列表折叠为一项，
+ * 因此只有参数值不同的语句属于同一形态。
+ */
+public final class SqlStatementContext {
+
+    private static final ThreadLocal<Scope> CURRENT = new ThreadLocal<>();
+
+    private static final Pattern COMMENTS = Pattern.compile("/\\*.*?\\*/", Pattern.DOTALL);
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern IN_LIST = Pattern.compile("\\(\\s*\\?(\\s*,\\s*\\?)+\\s*\\)");
+
+    /**
+     * 超出 {@link SqlStatsProperties#getMaxShapes()} 后，新形态统一计入该项
+     */
+    static final String OTHER_SHAPES = "<other>";
+
+    private SqlStatementContext() {
+    }
+
+    /**
+     * 打开一个统计范围，必须在 finally 中调用 {@link Scope#close()}
+     *
+     * @param kind      范围类型，如 request、service
+     * @param name      范围名称，如请求路径模板、Service 方法名
+     * @param maxShapes 最多跟踪的语句形态数
+     */
+    public static Scope open(String kind, String name, int maxShapes) {
+        Scope scope = new Scope(kind, name, CURRENT.get(), maxShapes);
+        CURRENT.set(scope);
+        return scope;
+    }
+
+    /**
+     * 记录一条即将执行的语句
+     */
+    static void recordStatement(String sql) {
+        Scope scope = CURRENT.get();
+        if (scope == null) {
+            return;
+        }
+        String shape = shapeOf(sql);
+        for (; scope != null; scope = scope.parent) {
+            scope.addStatement(shape);
+        }
+    }
+
+    /**
+     * 记录一次 JDBC 执行耗时
+     */
+    static void recordExecution(long nanos) {
+        for (Scope scope = CURRENT.get(); scope != null; scope = scope.parent) {
+            scope.nanos += nanos;
+        }
+    }
+
+    static String shapeOf(String sql) {
+        String shape = COMMENTS.matcher(sql).replaceAll(" ");
+        shape = WHITESPACE.matcher(shape).replaceAll(" ").trim();
+        return IN_LIST.matcher(shape).replaceAll("(?, ...)");
+    }
+
+    /**
+     * 统计范围，仅由打开它的线程访问
+     */
+    public static final class Scope implements AutoCloseable {
+
+        private final String kind;
+        private String name;
+        @Nullable
+        private final Scope parent;
+        private final int maxShapes;
+        private final Map<String, int[]> shapes = new HashMap<>();
+        private final long startedAt = System.nanoTime();
+        private int statements;
+        private long nanos;
+
+        private Scope(String kind, String name, @Nullable Scope parent, int maxShapes) {
+            this.kind = kind;
+            this.name = name;
+            this.parent = parent;
+            this.maxShapes = maxShapes;
+        }
+
+        private void addStatement(String shape) {
+            statements++;
+            int[] count = shapes.get(shape);
+            if (count == null) {
+                count = shapes.computeIfAbsent(shapes.size() < maxShapes ? shape : OTHER_SHAPES, k -> new int[1]);
+            }
+            count[0]++;
+        }
+
+        public String getKind() {
+            return kind;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        /**
+         * 执行的语句总数
+         */
+        public int getStatements() {
+            return statements;
+        }
+
+        /**
+         * JDBC 执行耗时总和（纳秒）
+         */
+        public long getNanos() {
+            return nanos;
+        }
+
+        /**
+         * 范围打开至今的耗时（纳秒）
+         */
+        public long getElapsedNanos() {
+            return System.nanoTime() - startedAt;
+        }
+
+        /**
+         * 执行次数最多的语句形态，按次数降序
+         */
+        public List<ShapeCount> topShapes(int limit) {
+            List<ShapeCount> result = new ArrayList<>(shapes.size());
+            shapes.forEach((shape, count) -> result.add(new ShapeCount(shape, count[0])));
+            result.sort(Comparator.comparingInt(ShapeCount::count).reversed());
+            return result.size() > limit ? result.subList(0, limit) : result;
+        }
+
+        /**
+         * 执行次数最多的语句形态的次数
+         */
+        public int maxRepeat() {
+            int max = 0;
+            for (Map.Entry<String, int[]> entry : shapes.entrySet()) {
+                if (!OTHER_SHAPES.equals(entry.getKey())) {
+                    max = Math.max(max, entry.getValue()[0]);
+                }
+            }
+            return max;
+        }
+
+        @Override
+        public void close() {
+            if (parent == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(parent);
+            }
+        }
+    }
+
+    /**
+     * 语句形态及其执行次数
+     */
+    public record ShapeCount(String shape, int count) {
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.common.sql;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * 把 Hibernate 准备执行的每条语句计入当前线程的 {@link SqlStatementContext}，不修改语句本身
+ */
+public class SqlStatementInspector implements StatementInspector {
+
+    @Override
+    public String inspect(String sql) {
+        SqlStatementContext.recordStatement(sql);
+        return sql;
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.common.sql;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+import com.example.common.sql.SqlStatementContext.Scope;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 按 {@link com.example.service.base.AbstractService} 的公共方法统计 SQL 语句数和数据库耗时
+ * <p>
+ * 优先级高于事务切面，提交时 flush 产生的语句也计入该方法。
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@ConditionalOnProperty(prefix = "app.sql-stats", name = "enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+public class SqlStatsAspect {
+
+    private final SqlStatsProperties properties;
+    private final SqlStatsReporter reporter;
+
+    @Around("execution(public * *(..)) && target(com.example.service.base.AbstractService)")
+    public Object around(ProceedingJoinPoint joinPoint) throws Throwable {
+        String name = ClassUtils.getUserClass(joinPoint.getTarget()).getSimpleName() + "." + joinPoint.getSignature().getName();
+        Scope scope = SqlStatementContext.open("service", name, properties.getMaxShapes());
+        try {
+            return joinPoint.proceed();
+        } finally {
+            scope.close();
+            reporter.report(scope);
+        }
+    }
+}
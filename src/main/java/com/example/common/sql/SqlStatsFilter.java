@@ -0,0 +1,55 @@
+package com.example.common.sql;
+
+import java.io.IOException;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import com.example.common.sql.SqlStatementContext.Scope;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 按 HTTP 请求统计 SQL 语句数和数据库耗时
+ * <p>
+ * 排在安全过滤器之前，认证过程中的查询也会计入。请求名称使用 Spring MVC 匹配到的路径模板，
+ * 避免路径变量导致指标标签数量失控。
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@ConditionalOnProperty(prefix = "app.sql-stats", name = "enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+public class SqlStatsFilter extends OncePerRequestFilter {
+
+    private static final String UNMATCHED = "UNMATCHED";
+
+    private final SqlStatsProperties properties;
+    private final SqlStatsReporter reporter;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Scope scope = SqlStatementContext.open("request", UNMATCHED, properties.getMaxShapes());
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            scope.close();
+            // 路径模板在请求分发之后才能拿到
+            scope.setName(request.getMethod() + " " + pattern(request));
+            reporter.report(scope);
+        }
+    }
+
+    private static String pattern(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? pattern.toString() : UNMATCHED;
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.common.sql;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Data;
+
+/**
+ * SQL 语句统计配置
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.sql-stats")
+public class SqlStatsProperties {
+
+    /**
+     * 是否开启统计
+     */
+    private boolean enabled = true;
+
+    /**
+     * 同一形态的语句在一个请求或 Service 方法内执行超过该次数时判定为疑似 N+1
+     */
+    private int repeatThreshold = 10;
+
+    /**
+     * 一个请求或 Service 方法内执行的语句数超过该值时记录警告
+     */
+    private int maxStatements = 50;
+
+    /**
+     * 警告日志的采样率（0 ~ 1），指标不受采样影响
+     */
+    private double logSampleRate = 0.1;
+
+    /**
+     * 警告日志中列出的重复次数最多的语句数
+     */
+    private int topShapes = 3;
+
+    /**
+     * 每个统计范围内最多跟踪的不同语句形态数，超出的部分只计入总数
+     */
+    private int maxShapes = 256;
+}
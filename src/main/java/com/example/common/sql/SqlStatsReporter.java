@@ -0,0 +1,80 @@
+package com.example.common.sql;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.springframework.stereotype.Component;
+
+import com.example.common.sql.SqlStatementContext.Scope;
+import com.example.common.sql.SqlStatementContext.ShapeCount;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 在统计范围结束时输出指标，并对疑似 N+1 或语句过多的范围按采样率记录警告
+ * <p>
+ * 暴露以下指标，均按 scope（request/service）和 name（请求路径模板或 Service 方法）区分：
+ * <ul>
+ * <li>{@code sql.statements} - 每个范围内执行的语句数</li>
+ * <li>{@code sql.duration} - 每个范围内的 JDBC 执行耗时总和</li>
+ * <li>{@code sql.n_plus_one} - 判定为疑似 N+1 的次数</li>
+ * </ul>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SqlStatsReporter {
+
+    private final SqlStatsProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * 报告已关闭的统计范围
+     */
+    public void report(Scope scope) {
+        DistributionSummary.builder("sql.statements")
+                .description("每个请求或 Service 方法执行的 SQL 语句数")
+                .tags("scope", scope.getKind(), "name", scope.getName())
+                .register(meterRegistry)
+                .record(scope.getStatements());
+        Timer.builder("sql.duration")
+                .description("每个请求或 Service 方法的 JDBC 执行耗时")
+                .tags("scope", scope.getKind(), "name", scope.getName())
+                .register(meterRegistry)
+                .record(scope.getNanos(), TimeUnit.NANOSECONDS);
+
+        boolean nPlusOne = scope.maxRepeat() > properties.getRepeatThreshold();
+        if (nPlusOne) {
+            Counter.builder("sql.n_plus_one")
+                    .description("疑似 N+1 查询的次数")
+                    .tags("scope", scope.getKind(), "name", scope.getName())
+                    .register(meterRegistry)
+                    .increment();
+        }
+
+        if ((nPlusOne || scope.getStatements() > properties.getMaxStatements()) && sampled()) {
+            log.warn("{} - {} {}: {} 条 SQL, 数据库耗时 {} ms, 总耗时 {} ms, 执行最多的语句:\n{}",
+                    nPlusOne ? "疑似 N+1 查询" : "SQL 语句过多", scope.getKind(), scope.getName(),
+                    scope.getStatements(), TimeUnit.NANOSECONDS.toMillis(scope.getNanos()),
+                    TimeUnit.NANOSECONDS.toMillis(scope.getElapsedNanos()), format(scope.topShapes(properties.getTopShapes())));
+        }
+    }
+
+    private boolean sampled() {
+        double rate = properties.getLogSampleRate();
+        return rate >= 1 || rate > 0 && ThreadLocalRandom.current().nextDouble() < rate;
+    }
+
+    private static String format(List<ShapeCount> shapes) {
+        return shapes.stream()
+                .map(shape -> "  %d x %s".formatted(shape.count(), shape.shape()))
+                .collect(Collectors.joining("\n"));
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.common.sql;
+
+import org.hibernate.SessionEventListener;
+
+/**
+ * 统计 JDBC 执行耗时的 Hibernate 会话事件监听器
+ * <p>
+ * 通过 {@code hibernate.session.events.auto} 为每个会话创建一个实例，会话不跨线程使用，无需同步。
+ * 耗时计入当前线程的 {@link SqlStatementContext}。
+ */
+public class SqlTimingSessionListener implements SessionEventListener {
+
+    private long executeStartedAt;
+    private long batchStartedAt;
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        executeStartedAt = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        SqlStatementContext.recordExecution(System.nanoTime() - executeStartedAt);
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        batchStartedAt = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        SqlStatementContext.recordExecution(System.nanoTime() - batchStartedAt);
+    }
+}
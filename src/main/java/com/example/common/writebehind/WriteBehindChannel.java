@@ -0,0 +1,174 @@
+package com.example.common.writebehind;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+import java.util.function.BinaryOperator;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.Nullable;
+
+/**
+ * 写后队列中的一个通道，对应一条 UPDATE 语句，由 {@link WriteBehindQueue#channel} 创建。
+ * <p>
+ * 待写入的值按键（通常是实体 ID）保存，同一个键在两次刷新之间的多次更新通过 {@code merger} 合并为一条，
+ * 刷新时每个键只执行一次语句。
+ *
+ * @param <K> 键类型
+ * @param <V> 值类型
+ */
+public final class WriteBehindChannel<K, V> {
+
+    private final String name;
+    private final String sql;
+    private final BiFunction<K, V, Object[]> parameters;
+    private final BinaryOperator<V> merger;
+    @Nullable
+    private final Class<?> entityClass;
+    private final WriteBehindQueue queue;
+    private final Map<K, V> pending = new ConcurrentHashMap<>();
+
+    private final Counter enqueuedCounter;
+    private final Counter coalescedCounter;
+    private final Counter droppedCounter;
+    private final Counter flushedCounter;
+    private final Counter failedCounter;
+
+    WriteBehindChannel(String name, String sql, BiFunction<K, V, Object[]> parameters, BinaryOperator<V> merger,
+                       @Nullable Class<?> entityClass, WriteBehindQueue queue, MeterRegistry meterRegistry) {
+        this.name = name;
+        this.sql = sql;
+        this.parameters = parameters;
+        this.merger = merger;
+        this.entityClass = entityClass;
+        this.queue = queue;
+
+        Gauge.builder("write_behind.pending", pending, Map::size)
+                .description("等待写入的条目数")
+                .tag("channel", name)
+                .register(meterRegistry);
+        this.enqueuedCounter = counter("write_behind.enqueued", "新加入队列的条目数", meterRegistry);
+        this.coalescedCounter = counter("write_behind.coalesced", "合并到已有条目的更新数", meterRegistry);
+        this.droppedCounter = counter("write_behind.dropped", "因队列已满或已关闭被丢弃的更新数", meterRegistry);
+        this.flushedCounter = counter("write_behind.flushed", "成功写入数据库的条目数", meterRegistry);
+        this.failedCounter = counter("write_behind.failed", "写入失败、等待重试的条目数", meterRegistry);
+    }
+
+    /**
+     * 提交一次更新，立即返回，不访问数据库
+     *
+     * @param key   键，通常是实体 ID
+     * @param value 要写入的值，与同一个键尚未写入的值合并
+     * @return 是否被接受；队列已满（且该键没有待写入的值）或已关闭时返回 false，本次更新被丢弃
+     */
+    public boolean offer(K key, V value) {
+        if (queue.isClosed()) {
+            droppedCounter.increment();
+            return false;
+        }
+        boolean[] added = {false};
+        V merged = pending.compute(key, (k, current) -> {
+            if (current != null) {
+                return merger.apply(current, value);
+            }
+            if (!queue.reserve()) {
+                return null;
+            }
+            added[0] = true;
+            return value;
+        });
+        if (merged == null) {
+            droppedCounter.increment();
+            queue.onDropped(name);
+            return false;
+        }
+        if (added[0]) {
+            enqueuedCounter.increment();
+            queue.onAdded();
+        } else {
+            coalescedCounter.increment();
+        }
+        return true;
+    }
+
+    /**
+     * 当前等待写入的条目数
+     */
+    public int pending() {
+        return pending.size();
+    }
+
+    /**
+     * 取出所有待写入的条目，按批次执行；写入失败的批次放回队列等待下一次刷新
+     *
+     * @return 成功写入的条目数
+     */
+    int flush(int batchSize) {
+        int flushed = 0;
+        List<K> keys = new ArrayList<>(batchSize);
+        List<V> values = new ArrayList<>(batchSize);
+        for (K key : pending.keySet()) {
+            V value = pending.remove(key);
+            if (value == null) {
+                continue;
+            }
+            queue.release();
+            keys.add(key);
+            values.add(value);
+            if (keys.size() == batchSize) {
+                flushed += write(keys, values);
+                keys.clear();
+                values.clear();
+            }
+        }
+        if (!keys.isEmpty()) {
+            flushed += write(keys, values);
+        }
+        return flushed;
+    }
+
+    private int write(List<K> keys, List<V> values) {
+        List<Object[]> batch = new ArrayList<>(keys.size());
+        for (int i = 0; i < keys.size(); i++) {
+            batch.add(parameters.apply(keys.get(i), values.get(i)));
+        }
+        try {
+            queue.write(sql, batch, entityClass, keys);
+            flushedCounter.increment(keys.size());
+            return keys.size();
+        } catch (RuntimeException e) {
+            failedCounter.increment(keys.size());
+            queue.onFailed(name, keys.size(), e);
+            for (int i = 0; i < keys.size(); i++) {
+                restore(keys.get(i), values.get(i));
+            }
+            return 0;
+        }
+    }
+
+    /**
+     * 把写入失败的值放回队列，期间到达的新值比失败的值更新，合并时放在后面
+     */
+    private void restore(K key, V failed) {
+        V restored = pending.compute(key, (k, current) -> {
+            if (current != null) {
+                return merger.apply(failed, current);
+            }
+            return queue.reserve() ? failed : null;
+        });
+        if (restored == null) {
+            droppedCounter.increment();
+        }
+    }
+
+    private Counter counter(String meterName, String description, MeterRegistry meterRegistry) {
+        return Counter.builder(meterName)
+                .description(description)
+                .tag("channel", name)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.common.writebehind;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Data;
+
+/**
+ * 写后队列配置
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.write-behind")
+public class WriteBehindProperties {
+
+    /**
+     * 定时刷新的间隔
+     */
+    private Duration flushInterval = Duration.ofSeconds(1);
+
+    /**
+     * 每个 JDBC 批次的行数；待写入的条目数达到该值时立即触发一次刷新
+     */
+    private int batchSize = 500;
+
+    /**
+     * 所有通道合计的待写入条目上限，达到后新的键被丢弃（已有键的更新仍会合并）
+     */
+    private int maxPending = 100_000;
+
+    /**
+     * 应用关闭时等待正在进行的刷新结束的时间，之后同步写入剩余条目
+     */
+    private Duration shutdownTimeout = Duration.ofSeconds(10);
+}
@@ -0,0 +1,198 @@
+package com.example.common.writebehind;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+import java.util.function.BinaryOperator;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.util.Assert;
+
+import com.example.common.cache.SecondLevelCacheInvalidator;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.Nullable;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 写后队列
+ * <p>
+ * 用于不需要同步落库的低价值更新，如最近登录时间、最近活跃时间、计数器等。调用方通过 {@link WriteBehindChannel#offer}
+ * 提交更新后立即返回，不开启事务也不占用数据库连接；同一个键的多次更新在内存中合并，
+ * 后台线程按 {@code flush-interval} 定时、或在待写入条目达到 {@code batch-size} 时，以 JDBC 批量语句写入主库。
+ * <ul>
+ * <li>内存有界：所有通道合计最多保留 {@code max-pending} 个键，超出后新的键被丢弃并计入 {@code write_behind.dropped}</li>
+ * <li>写入失败的批次放回队列，在下一次刷新时重试</li>
+ * <li>应用关闭时停止接收新的更新，并同步写入剩余条目</li>
+ * <li>语句绕过了 Hibernate，指定了实体类型的通道在写入后清除受影响实体的实体缓存（本地和其他实例，每个批次一条通知），
+ * 不清除自然 ID 缓存和查询缓存，因此通道只能更新既不是自然 ID、也不参与缓存查询条件的列</li>
+ * </ul>
+ * 进程异常退出时尚未写入的更新会丢失，不要用于需要可靠持久化的数据。
+ * <p>
+ * 除各通道的指标（见 {@link WriteBehindChannel}）外，暴露 {@code write_behind.flush}：每次刷新的耗时。
+ */
+@Slf4j
+@Component
+public class WriteBehindQueue {
+
+    private final WriteBehindProperties properties;
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+    private final ObjectProvider<SecondLevelCacheInvalidator> cacheInvalidator;
+    private final MeterRegistry meterRegistry;
+    private final ScheduledExecutorService flusher;
+    private final List<WriteBehindChannel<?, ?>> channels = new CopyOnWriteArrayList<>();
+    private final AtomicInteger pending = new AtomicInteger();
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+    private final AtomicBoolean dropWarned = new AtomicBoolean();
+    private final Timer flushTimer;
+
+    private volatile boolean closed;
+
+    public WriteBehindQueue(WriteBehindProperties properties, JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory,
+                            ObjectProvider<SecondLevelCacheInvalidator> cacheInvalidator, MeterRegistry meterRegistry) {
+        Assert.isTrue(properties.getBatchSize() > 0, "batchSize must be greater than 0");
+        this.properties = properties;
+        this.jdbcTemplate = jdbcTemplate;
+        this.entityManagerFactory = entityManagerFactory;
+        this.cacheInvalidator = cacheInvalidator;
+        this.meterRegistry = meterRegistry;
+        this.flushTimer = Timer.builder("write_behind.flush")
+                .description("写后队列每次刷新的耗时")
+                .register(meterRegistry);
+        this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "write-behind-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = properties.getFlushInterval().toMillis();
+        flusher.scheduleWithFixedDelay(this::flushQuietly, interval, interval, TimeUnit.MILLISECONDS);
+        log.info("Write-behind queue initialized - flushInterval: {}, batchSize: {}, maxPending: {}",
+                properties.getFlushInterval(), properties.getBatchSize(), properties.getMaxPending());
+    }
+
+    /**
+     * 创建一个通道
+     *
+     * @param name        通道名称，用于指标标签和日志，如 user.last_login
+     * @param sql         带位置参数的 UPDATE 语句
+     * @param parameters  由键和值生成语句参数
+     * @param merger      合并同一个键的两次更新，参数依次为较早和较晚的值，如取较大者、相加
+     * @param entityClass 语句修改的实体类型，写入后清除其实体缓存；为 null 时不清除。语句不能修改自然 ID 或缓存查询的条件列
+     */
+    public <K, V> WriteBehindChannel<K, V> channel(String name, String sql, BiFunction<K, V, Object[]> parameters,
+                                                   BinaryOperator<V> merger, @Nullable Class<?> entityClass) {
+        WriteBehindChannel<K, V> channel = new WriteBehindChannel<>(name, sql, parameters, merger, entityClass, this, meterRegistry);
+        channels.add(channel);
+        return channel;
+    }
+
+    /**
+     * 立即把所有通道的待写入条目写入数据库
+     *
+     * @return 成功写入的条目数
+     */
+    public synchronized int flush() {
+        flushRequested.set(false);
+        dropWarned.set(false);
+        if (pending.get() == 0) {
+            return 0;
+        }
+        Timer.Sample sample = Timer.start();
+        int flushed = 0;
+        for (WriteBehindChannel<?, ?> channel : channels) {
+            flushed += channel.flush(properties.getBatchSize());
+        }
+        sample.stop(flushTimer);
+        log.debug("Write-behind queue flushed - {} entries", flushed);
+        return flushed;
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        closed = true;
+        flusher.shutdown();
+        if (!flusher.awaitTermination(properties.getShutdownTimeout().toMillis(), TimeUnit.MILLISECONDS)) {
+            log.warn("Write-behind flusher did not stop in {}", properties.getShutdownTimeout());
+        }
+        int flushed = flush();
+        log.info("Write-behind queue closed - flushed {} entries, {} left", flushed, pending.get());
+    }
+
+    boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * 为一个新键占用容量
+     *
+     * @return 是否还有容量
+     */
+    boolean reserve() {
+        int current;
+        do {
+            current = pending.get();
+            if (current >= properties.getMaxPending()) {
+                return false;
+            }
+        } while (!pending.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    void release() {
+        pending.decrementAndGet();
+    }
+
+    /**
+     * 待写入条目达到一个批次时提前触发刷新，已有刷新请求未执行时不重复提交
+     */
+    void onAdded() {
+        if (pending.get() >= properties.getBatchSize() && flushRequested.compareAndSet(false, true) && !closed) {
+            try {
+                flusher.execute(this::flushQuietly);
+            } catch (RuntimeException e) {
+                flushRequested.set(false);
+            }
+        }
+    }
+
+    void onDropped(String channel) {
+        // 每个刷新周期最多记录一次
+        if (dropWarned.compareAndSet(false, true)) {
+            log.warn("Write-behind queue is full, dropping updates - channel: {}, maxPending: {}", channel, properties.getMaxPending());
+        }
+    }
+
+    void onFailed(String channel, int size, Exception e) {
+        log.warn("Write-behind batch failed, will retry - channel: {}, size: {}: {}", channel, size, e.getMessage());
+    }
+
+    /**
+     * 执行一个批次，并清除受影响实体的实体缓存
+     */
+    void write(String sql, List<Object[]> batch, @Nullable Class<?> entityClass, List<?> ids) {
+        jdbcTemplate.batchUpdate(sql, batch);
+        if (entityClass != null) {
+            ids.forEach(id -> entityManagerFactory.getCache().evict(entityClass, id));
+            cacheInvalidator.ifAvailable(invalidator -> invalidator.publishEntityData(entityClass, ids));
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (Exception e) {
+            log.error("Write-behind flush failed", e);
+        }
+    }
+}
@@ -1,29 +1,47 @@
 package com.example.controller;
 
 import com.example.common.ApiResponse;
+import com.example.common.CursorSlice;
+import com.example.common.exception.ValidationException;
+import com.example.common.export.ExportColumn;
+import com.example.common.export.ExportFormat;
+import com.example.common.export.StreamingExporter;
 import com.example.common.view.Views;
 import com.example.domain.User;
+import com.example.dto.UpdateUserRequest;
+import com.example.dto.UserSummary;
 import com.example.service.UserService;
+import com.example.service.base.CountMode;
 import com.fasterxml.jackson.annotation.JsonView;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.data.web.SortDefault;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 @Slf4j
 @RestController
 @RequestMapping("/api/admin/users")
+@Validated
 @RequiredArgsConstructor
 @SecurityRequirement(name = "Bearer")
 // @PreAuthorize("hasRole('ADMIN')")
@@ -31,6 +49,24 @@ import java.util.Map;
 public class AdminUserController {
 
     private final UserService userService;
+    private final StreamingExporter streamingExporter;
+
+    /**
+     * 用户导出的 CSV 列，不包含密码哈希等敏感字段
+     */
+    private static final List<ExportColumn<User>> EXPORT_COLUMNS = List.of(
+            ExportColumn.of("id", User::getId),
+            ExportColumn.of("username", User::getUsername),
+            ExportColumn.of("email", User::getEmail),
+            ExportColumn.of("fullName", User::getFullName),
+            ExportColumn.of("roles", User::getRoles),
+            ExportColumn.of("createdAt", User::getCreatedAt),
+            ExportColumn.of("updatedAt", User::getUpdatedAt));
+
+    /**
+     * 游标分页允许的排序属性：取值非空且不随编辑变化，游标中只会出现这些属性的值
+     */
+    private static final Set<String> SCROLL_SORT_PROPERTIES = Set.of("id", "username", "createdAt");
 
     /**
      * 创建用户
@@ -58,17 +94,62 @@ public class AdminUserController {
     @GetMapping
     @Operation(summary = "获取用户列表", description = "分页获取用户列表")
     @JsonView(Views.Admin.class)
-    public Page<User> getUsers(@PageableDefault Pageable page) {
-        return userService.getUsers(page);
+    public Slice<UserSummary> getUsers(
+            @PageableDefault Pageable page,
+            @Parameter(description = "总数统计方式：EXACT、CACHED、APPROXIMATE、NONE") @RequestParam(defaultValue = "CACHED") CountMode count) {
+        return userService.getUserSummaries(page, count);
+    }
+
+    /**
+     * 搜索用户
+     */
+    @GetMapping("/search")
+    @Operation(summary = "搜索用户", description = "搜索用户名、邮箱或全名包含关键词的用户（不区分大小写），结果按 ID 升序")
+    @JsonView(Views.Admin.class)
+    public Page<UserSummary> searchUsers(
+            @Parameter(description = "搜索关键词") @RequestParam String keyword,
+            @PageableDefault Pageable page) {
+        return userService.searchUsers(keyword, page);
+    }
+
+    /**
+     * 游标分页获取用户列表，适合深度翻页
+     */
+    @GetMapping("/scroll")
+    @Operation(summary = "游标分页获取用户列表", description = "使用上一页返回的 nextCursor 获取下一页，翻页深度不影响查询性能；只支持按 id、username、createdAt 排序")
+    @JsonView(Views.Admin.class)
+    public CursorSlice<User> scrollUsers(
+            @Parameter(description = "上一页返回的游标，第一页不传") @RequestParam(required = false) String cursor,
+            @Parameter(description = "每页大小") @RequestParam(defaultValue = "20") @Min(1) @Max(100) int size,
+            @SortDefault(sort = "id") Sort sort) {
+        for (Sort.Order order : sort) {
+            if (!SCROLL_SORT_PROPERTIES.contains(order.getProperty())) {
+                throw ValidationException.fieldInvalid("sort", "不支持的排序属性: " + order.getProperty());
+            }
+        }
+        return userService.findAllByCursor(cursor, size, sort);
+    }
+
+    /**
+     * 导出用户
+     */
+    @GetMapping("/export")
+    @Operation(summary = "导出用户", description = "以 NDJSON 或 CSV 格式流式导出全部用户，可选 gzip 压缩")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportUsers(
+            @Parameter(description = "导出格式：NDJSON、CSV") @RequestParam(defaultValue = "NDJSON") ExportFormat format,
+            @Parameter(description = "是否 gzip 压缩") @RequestParam(defaultValue = "false") boolean gzip) {
+        return streamingExporter.export("users", format, gzip, Views.Basic.class, EXPORT_COLUMNS,
+                action -> userService.forEach(Sort.by("id"), action));
     }
 
     /**
-     * 更新用户
+     * 更新用户，PUT 与 PATCH 语义相同：只修改请求中不为空的字段，带版本号时检查并发修改
      */
-    @PutMapping("/{id}")
-    @Operation(summary = "更新用户", description = "更新用户信息")
-    public User updateUser(@Parameter(description = "用户ID") @PathVariable Long id, @Valid @RequestBody User user) {
-        return userService.updateUser(id, user);
+    @RequestMapping(path = "/{id}", method = {RequestMethod.PUT, RequestMethod.PATCH})
+    @Operation(summary = "更新用户", description = "更新用户信息，只修改请求中不为空的字段，版本冲突时返回 409")
+    public User updateUser(@Parameter(description = "用户ID") @PathVariable Long id, @Valid @RequestBody UpdateUserRequest request) {
+        return userService.updateUser(id, request);
     }
 
     /**
@@ -2,7 +2,11 @@ package com.example.controller;
 
 import com.example.domain.AppConfig;
 import com.example.dto.UpdateAppConfigRequest;
+import com.example.common.export.ExportColumn;
+import com.example.common.export.ExportFormat;
+import com.example.common.export.StreamingExporter;
 import com.example.service.AppConfigService;
+import com.example.service.base.CountMode;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
@@ -12,9 +16,13 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.Map;
@@ -31,6 +39,20 @@ import java.util.Map;
 public class AppConfigController {
 
     private final AppConfigService appConfigService;
+    private final StreamingExporter streamingExporter;
+
+    /**
+     * 配置导出的 CSV 列
+     */
+    private static final List<ExportColumn<AppConfig>> EXPORT_COLUMNS = List.of(
+            ExportColumn.of("id", AppConfig::getId),
+            ExportColumn.of("configGroup", AppConfig::getConfigGroup),
+            ExportColumn.of("configKey", AppConfig::getConfigKey),
+            ExportColumn.of("configValue", AppConfig::getConfigValue),
+            ExportColumn.of("valueType", AppConfig::getValueType),
+            ExportColumn.of("description", AppConfig::getDescription),
+            ExportColumn.of("isSystem", AppConfig::getIsSystem),
+            ExportColumn.of("isEditable", AppConfig::getIsEditable));
 
     /**
      * 创建配置
@@ -43,10 +65,10 @@ public class AppConfigController {
     }
 
     /**
-     * 更新配置
+     * 更新配置，PUT 与 PATCH 语义相同：只修改请求中不为空的字段，带版本号时检查并发修改
      */
-    @PutMapping("/{id}")
-    @Operation(summary = "更新配置", description = "更新指定的应用配置")
+    @RequestMapping(path = "/{id}", method = {RequestMethod.PUT, RequestMethod.PATCH})
+    @Operation(summary = "更新配置", description = "更新指定的应用配置，只修改请求中不为空的字段，版本冲突时返回 409")
     @PreAuthorize("hasRole('ADMIN')")
     public AppConfig updateConfig(@Parameter(description = "配置ID") @PathVariable Long id, @Valid @RequestBody UpdateAppConfigRequest request) {
         return appConfigService.updateConfig(id, request);
@@ -132,17 +154,31 @@ public class AppConfigController {
     @GetMapping
     @Operation(summary = "获取配置列表", description = "分页获取配置列表")
     @PreAuthorize("hasRole('ADMIN')")
-    public Page<AppConfig> getConfigsPage(@Parameter(description = "配置组") @RequestParam(required = false) String configGroup, @PageableDefault(sort = "id") Pageable pageable) {
-        return appConfigService.getConfigsPage(configGroup, pageable);
+    public Slice<AppConfig> getConfigsPage(@Parameter(description = "配置组") @RequestParam(required = false) String configGroup, @PageableDefault(sort = "id") Pageable pageable,
+                                           @Parameter(description = "总数统计方式：EXACT、CACHED、APPROXIMATE、NONE") @RequestParam(defaultValue = "EXACT") CountMode count) {
+        return appConfigService.getConfigsPage(configGroup, pageable, count);
+    }
+
+    /**
+     * 导出配置
+     */
+    @GetMapping("/export")
+    @Operation(summary = "导出配置", description = "以 NDJSON 或 CSV 格式流式导出全部配置，可选 gzip 压缩")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportConfigs(
+            @Parameter(description = "导出格式：NDJSON、CSV") @RequestParam(defaultValue = "NDJSON") ExportFormat format,
+            @Parameter(description = "是否 gzip 压缩") @RequestParam(defaultValue = "false") boolean gzip) {
+        return streamingExporter.export("configs", format, gzip, null, EXPORT_COLUMNS,
+                action -> appConfigService.forEach(Sort.by("id"), action));
     }
 
     /**
      * 搜索配置
      */
     @GetMapping("/search")
-    @Operation(summary = "搜索配置", description = "根据关键词搜索配置")
+    @Operation(summary = "搜索配置", description = "搜索配置键或描述包含关键词的配置（不区分大小写），结果按 ID 升序")
     @PreAuthorize("hasRole('ADMIN')")
-    public Page<AppConfig> searchConfigs(@Parameter(description = "搜索关键词") @RequestParam String keyword, @PageableDefault(size = 10, sort = "id") Pageable pageable) {
+    public Page<AppConfig> searchConfigs(@Parameter(description = "搜索关键词") @RequestParam String keyword, @PageableDefault(size = 10) Pageable pageable) {
         return appConfigService.searchConfigs(keyword, pageable);
     }
 
@@ -10,11 +10,15 @@ import org.springframework.web.bind.annotation.RestController;
 
 import com.example.dto.LoginRequest;
 import com.example.dto.LoginResponse;
+import com.example.dto.RefreshTokenRequest;
 import com.example.dto.RegisterRequest;
 import com.example.service.AuthService;
+import com.example.service.AuthThrottleService;
+import com.example.util.HttpRequestUtils;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -32,13 +36,16 @@ public class AuthController {
 
     private final AuthService authService;
     private final UserService userService;
+    private final AuthThrottleService authThrottleService;
 
     /**
      * 用户注册
      */
     @PostMapping("/register")
     @Operation(summary = "用户注册")
-    public LoginResponse register(@Valid @RequestBody RegisterRequest request) {
+    public LoginResponse register(@Valid @RequestBody RegisterRequest request, HttpServletRequest httpRequest) {
+        // 限流必须在任何密码哈希和数据库查询之前执行
+        authThrottleService.checkRegister(HttpRequestUtils.getClientIp(httpRequest));
         return authService.register(request);
     }
 
@@ -47,10 +54,21 @@ public class AuthController {
      */
     @PostMapping("/login")
     @Operation(summary = "用户登录")
-    public LoginResponse login(@Valid @RequestBody LoginRequest request) {
+    public LoginResponse login(@Valid @RequestBody LoginRequest request, HttpServletRequest httpRequest) {
+        // 限流必须在任何密码哈希和数据库查询之前执行
+        authThrottleService.checkLogin(HttpRequestUtils.getClientIp(httpRequest), request.getUsername());
         return authService.login(request);
     }
 
+    /**
+     * 刷新 Token
+     */
+    @PostMapping("/refresh")
+    @Operation(summary = "刷新 Token", description = "使用 Refresh Token 换取新的 Access Token，Refresh Token 同时轮换")
+    public LoginResponse refresh(@Valid @RequestBody RefreshTokenRequest request) {
+        return authService.refresh(request);
+    }
+
     /**
      * 用户登出
      */
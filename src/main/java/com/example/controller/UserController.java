@@ -16,14 +16,15 @@ import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
-import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.example.common.ApiResponse;
 import com.example.domain.User;
+import com.example.dto.UpdateUserRequest;
 import com.example.service.AuthService;
 import com.example.service.UserService;
 
@@ -61,13 +62,13 @@ public class UserController {
     }
 
     /**
-     * 更新当前用户信息
+     * 更新当前用户信息，PUT 与 PATCH 语义相同：只修改请求中不为空的字段，带版本号时检查并发修改
      */
-    @PutMapping("/profile")
-    @Operation(summary = "更新当前用户信息")
-    public User updateUserProfile(@Valid @RequestBody User user) {
+    @RequestMapping(path = "/profile", method = {RequestMethod.PUT, RequestMethod.PATCH})
+    @Operation(summary = "更新当前用户信息", description = "只修改请求中不为空的字段，版本冲突时返回 409")
+    public User updateUserProfile(@Valid @RequestBody UpdateUserRequest request) {
         long userId = authService.requireCurrentUserId();
-        return userService.updateUser(userId, user);
+        return userService.updateUser(userId, request);
     }
 
     /**
@@ -1,15 +1,27 @@
 package com.example.domain;
 
+import com.example.common.search.Searchable;
 import com.example.domain.base.BaseEntity;
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 
 /**
  * 应用配置实体类
  */
 @Entity
-@Table(name = "app_config")
+@Table(name = "app_config",
+        uniqueConstraints = @UniqueConstraint(name = "uk_app_config_group_key", columnNames = {"config_group", "config_key"}),
+        indexes = @Index(name = "idx_app_config_config_key", columnList = "config_key"))
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@NaturalIdCache
+@DynamicUpdate // 只更新发生变化的列
 @Data
 @EqualsAndHashCode(callSuper = true)
 public class AppConfig extends BaseEntity<Long> {
@@ -17,6 +29,8 @@ public class AppConfig extends BaseEntity<Long> {
     /**
      * 配置键
      */
+    @Searchable
+    @NaturalId(mutable = true)
     @Column(nullable = false, length = 100)
     private String configKey;
 
@@ -29,6 +43,7 @@ public class AppConfig extends BaseEntity<Long> {
     /**
      * 配置分组
      */
+    @NaturalId(mutable = true)
     @Column(nullable = false, length = 50)
     private String configGroup = "default";
 
@@ -41,6 +56,7 @@ public class AppConfig extends BaseEntity<Long> {
     /**
      * 配置描述
      */
+    @Searchable
     private String description;
 
     /**
@@ -1,5 +1,6 @@
 package com.example.domain;
 
+import com.example.common.search.Searchable;
 import com.example.common.view.UserViews;
 import com.example.common.view.Views;
 import com.example.domain.base.AuditableAndSoftDeletableEntity;
@@ -10,12 +11,23 @@ import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
+
+import java.time.LocalDateTime;
 
 /**
  * 用户实体类
  */
 @Entity
-@Table(name = "users")
+@Table(name = "users", indexes = @Index(name = "idx_users_email", columnList = "email"))
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@NaturalIdCache
+@DynamicUpdate // 只更新发生变化的列
 @Data
 @EqualsAndHashCode(callSuper = true)
 @JsonView(Views.Basic.class) // 默认视图
@@ -27,12 +39,15 @@ public class User extends AuditableAndSoftDeletableEntity<Long> {
 
     @NotBlank(message = "用户名不能为空")
     @Size(min = 3, max = 50, message = "用户名长度必须在 3-50 之间")
+    @Searchable
+    @NaturalId(mutable = true)
     @Column(nullable = false, length = 50)
     private String username;
 
     // @JsonView(Views.Basic.class)
     @NotBlank(message = "邮箱不能为空")
     @Email(message = "邮箱格式不正确")
+    @Searchable
     @Column(nullable = false, length = 100)
     private String email;
 
@@ -56,6 +71,7 @@ public class User extends AuditableAndSoftDeletableEntity<Long> {
      * 全名，可用做昵称/界面显示名用途
      */
     // @JsonView(Views.Basic.class)
+    @Searchable
     private String fullName;
 
     /**
@@ -63,4 +79,11 @@ public class User extends AuditableAndSoftDeletableEntity<Long> {
      */
     @JsonView(Views.Admin.class)
     private String roles = ROLE_DEFAULT;
+
+    /**
+     * 最近登录时间，登录成功后经写后队列异步写入，最多比实际时间晚一个刷新间隔
+     */
+    @JsonView(Views.Admin.class)
+    @Column(columnDefinition = "datetime")
+    private LocalDateTime lastLoginAt;
 }
\ No newline at end of file
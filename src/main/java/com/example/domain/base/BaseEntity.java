@@ -2,20 +2,25 @@ package com.example.domain.base;
 
 import java.io.Serializable;
 
+import com.example.common.id.SnowflakeId;
 import com.example.common.view.Views;
 import com.fasterxml.jackson.annotation.JsonView;
 import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
 
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.MappedSuperclass;
+import jakarta.persistence.Version;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 /**
  * 实体基类
+ * <p>
+ * 主键默认由数据库自增生成，设置 {@code app.id.strategy=snowflake} 后改为插入前生成时间有序的 64 位 ID，
+ * 详见 {@link SnowflakeId}。JSON 中主键始终以字符串输出，避免超出 JavaScript 的安全整数范围。
+ * <p>
+ * 所有实体都带有乐观锁版本号，更新语句以版本号作为条件，并发修改时后提交的一方会失败而不是覆盖前者。
  */
 @MappedSuperclass
 @Data
@@ -23,8 +28,15 @@ import lombok.NoArgsConstructor;
 public abstract class BaseEntity<T extends Serializable> {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @SnowflakeId
     @JsonSerialize(using = ToStringSerializer.class)
     @JsonView(Views.IdOnly.class)
     protected T id;
+
+    /**
+     * 乐观锁版本号，客户端提交修改时带回读取到的值，用于检测并发修改
+     */
+    @Version
+    @JsonView(Views.IdOnly.class)
+    protected Long version;
 }
@@ -30,7 +30,7 @@ public abstract class SoftDeletableEntity<T extends Serializable> extends BaseEn
     private Boolean deleted = false;
 
     @JsonView(Views.Admin.class)
-    @Column(nullable = false, columnDefinition = "datetime default current_timestamp")
+    @Column(columnDefinition = "datetime")
     private LocalDateTime deletedAt;
 
     @JsonView(Views.Admin.class)
@@ -45,11 +45,18 @@ public abstract class SoftDeletableEntity<T extends Serializable> extends BaseEn
 
     @Transient
     public void markDelete() {
+        this.markDelete(currentOperator());
+    }
+
+    /**
+     * 当前操作人，用于填充 deletedBy，未登录时为 anonymousUser
+     */
+    public static String currentOperator() {
         String currentUser = "anonymousUser"; // Default value
         if (SecurityContextHolder.getContext().getAuthentication() != null) {
             currentUser = SecurityContextHolder.getContext().getAuthentication().getName();
         }
-        this.markDelete(currentUser);
+        return currentUser;
     }
 
     @Transient
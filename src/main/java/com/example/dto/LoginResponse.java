@@ -25,9 +25,15 @@ public class LoginResponse {
      * Token 将在多少秒后过期。
      * OAuth2 标准命名，单位秒，表示剩余时间
      */
-    @Schema(description = "过期时间（秒）", example = "86400")
+    @Schema(description = "过期时间（秒）", example = "900")
     private Long expiresIn;
 
+    @Schema(description = "Refresh Token，用于换取新的 Access Token，每次使用后都会轮换")
+    private String refreshToken;
+
+    @Schema(description = "Refresh Token 过期时间（秒）", example = "604800")
+    private Long refreshExpiresIn;
+
     @Schema(description = "用户信息")
     private User user;
 }
\ No newline at end of file
@@ -8,16 +8,16 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 /**
- * 刷新 Token 请求
+ * 刷新 Token 请求 DTO
  */
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
-@Schema(description = "刷新Token请求")
+@Schema(description = "刷新 Token 请求")
 public class RefreshTokenRequest {
 
-    @NotBlank(message = "刷新Token不能为空")
-    @Schema(description = "刷新Token", example = "eyJhbGciOiJIUzI1NiIsInR5cCI6IkpXVCJ9...")
+    @NotBlank(message = "Refresh Token 不能为空")
+    @Schema(description = "登录或上一次刷新时返回的 Refresh Token", requiredMode = Schema.RequiredMode.REQUIRED)
     private String refreshToken;
-}
\ No newline at end of file
+}
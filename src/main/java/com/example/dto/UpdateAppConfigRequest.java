@@ -1,7 +1,6 @@
 package com.example.dto;
 
 import io.swagger.v3.oas.annotations.media.Schema;
-import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import lombok.Data;
 import lombok.Builder;
@@ -18,8 +17,7 @@ import lombok.AllArgsConstructor;
 @Schema(description = "更新应用配置请求")
 public class UpdateAppConfigRequest {
 
-    @NotBlank(message = "配置值不能为空")
-    @Schema(description = "配置值", requiredMode = Schema.RequiredMode.REQUIRED)
+    @Schema(description = "配置值，为空时不修改")
     private String configValue;
 
     @Size(max = 255, message = "描述长度不能超过 255 个字符")
@@ -28,4 +26,7 @@ public class UpdateAppConfigRequest {
 
     @Schema(description = "是否可编辑")
     private Boolean isEditable;
+
+    @Schema(description = "读取配置时的版本号，与当前版本不一致时返回 409；为空时不检查")
+    private Long version;
 }
\ No newline at end of file
@@ -0,0 +1,40 @@
+package com.example.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 更新用户请求，所有字段均可省略，只修改不为空的字段
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "更新用户请求")
+public class UpdateUserRequest {
+
+    @Size(min = 3, max = 50, message = "用户名长度必须在3-50之间")
+    @Schema(description = "用户名，为空时不修改", example = "newuser")
+    private String username;
+
+    @Email(message = "邮箱格式不正确")
+    @Size(max = 100, message = "邮箱长度不能超过100个字符")
+    @Schema(description = "邮箱，为空时不修改", example = "newuser@example.com")
+    private String email;
+
+    @Size(max = 255, message = "头像 URL 长度不能超过 255 个字符")
+    @Schema(description = "头像 URL，为空时不修改")
+    private String avatar;
+
+    @Size(max = 255, message = "全名长度不能超过255个字符")
+    @Schema(description = "全名，为空时不修改", example = "新用户")
+    private String fullName;
+
+    @Schema(description = "读取用户时的版本号，与当前版本不一致时返回 409；为空时不检查")
+    private Long version;
+}
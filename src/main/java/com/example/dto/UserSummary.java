@@ -0,0 +1,32 @@
+package com.example.dto;
+
+import java.time.LocalDateTime;
+
+import com.example.common.view.Views;
+import com.example.domain.User;
+import com.fasterxml.jackson.annotation.JsonView;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * 用户列表投影，只包含列表展示需要的列，不含密码哈希和软删除字段
+ */
+@JsonView(Views.Basic.class)
+@Schema(description = "用户摘要")
+public record UserSummary(
+        @JsonSerialize(using = ToStringSerializer.class) Long id,
+        String username,
+        String email,
+        String avatar,
+        String fullName,
+        @JsonView(Views.Admin.class) String roles,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt) {
+
+    public static UserSummary of(User user) {
+        return new UserSummary(user.getId(), user.getUsername(), user.getEmail(), user.getAvatar(), user.getFullName(),
+                user.getRoles(), user.getCreatedAt(), user.getUpdatedAt());
+    }
+}
@@ -1,11 +1,14 @@
 package com.example.repository;
 
 import com.example.domain.AppConfig;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -16,18 +19,15 @@ import java.util.Optional;
  * 应用配置 Repository
  */
 @Repository
-public interface AppConfigRepository extends JpaRepository<AppConfig, Long>, JpaSpecificationExecutor<AppConfig> {
+public interface AppConfigRepository extends JpaRepository<AppConfig, Long>, JpaSpecificationExecutor<AppConfig>,
+        AppConfigRepositoryCustom {
 
     /**
-     * 根据配置键查找配置
+     * 根据配置键查找配置，结果进入查询缓存，配置表有修改时自动失效
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<AppConfig> findByConfigKey(String configKey);
 
-    /**
-     * 根据配置组和配置键查找配置
-     */
-    Optional<AppConfig> findByConfigGroupAndConfigKey(String configGroup, String configKey);
-
     /**
      * 根据配置组查找所有配置
      */
@@ -69,7 +69,7 @@ public interface AppConfigRepository extends JpaRepository<AppConfig, Long>, Jpa
     /**
      * 批量更新配置组
      */
-    @Query("UPDATE AppConfig c SET c.configGroup = :newGroup WHERE c.configGroup = :oldGroup")
+    @Query("UPDATE AppConfig c SET c.configGroup = :newGroup, c.version = c.version + 1 WHERE c.configGroup = :oldGroup")
     int updateConfigGroup(@Param("oldGroup") String oldGroup, @Param("newGroup") String newGroup);
 
     /**
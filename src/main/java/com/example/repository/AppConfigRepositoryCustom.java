@@ -0,0 +1,16 @@
+package com.example.repository;
+
+import com.example.domain.AppConfig;
+
+import java.util.Optional;
+
+/**
+ * AppConfigRepository 的自定义查询
+ */
+public interface AppConfigRepositoryCustom {
+
+    /**
+     * 根据配置组和配置键查找配置，通过自然 ID 加载，命中二级缓存时不执行 SQL
+     */
+    Optional<AppConfig> findByConfigGroupAndConfigKey(String configGroup, String configKey);
+}
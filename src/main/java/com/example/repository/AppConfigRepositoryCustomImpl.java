@@ -0,0 +1,26 @@
+package com.example.repository;
+
+import com.example.domain.AppConfig;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+
+import java.util.Optional;
+
+/**
+ * {@link AppConfigRepositoryCustom} 实现
+ */
+public class AppConfigRepositoryCustomImpl implements AppConfigRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Optional<AppConfig> findByConfigGroupAndConfigKey(String configGroup, String configKey) {
+        return entityManager.unwrap(Session.class)
+                .byNaturalId(AppConfig.class)
+                .using("configGroup", configGroup)
+                .using("configKey", configKey)
+                .loadOptional();
+    }
+}
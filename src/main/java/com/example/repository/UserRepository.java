@@ -18,12 +18,7 @@ import java.util.Optional;
  * UserRepository
  */
 @Repository
-public interface UserRepository extends JpaRepository<User, Long>, JpaSpecificationExecutor<User> {
-
-    /**
-     * 根据用户名查找用户
-     */
-    Optional<User> findByUsername(String username);
+public interface UserRepository extends JpaRepository<User, Long>, JpaSpecificationExecutor<User>, UserRepositoryCustom {
 
     /**
      * 根据邮箱查找用户
@@ -36,13 +31,40 @@ public interface UserRepository extends JpaRepository<User, Long>, JpaSpecificat
     Optional<User> findByUsernameOrEmail(String username, String email);
 
     /**
-     * 检查用户名是否存在
+     * 检查用户名是否已被占用，包含已软删除、尚未归档的用户：uk_users_username 对这些行同样生效，
+     * 只检查未删除的用户会让重名注册通过校验后在插入时违反唯一约束
+     */
+    default boolean existsByUsername(String username) {
+        return countByUsernameIncludingDeleted(username) > 0;
+    }
+
+    /**
+     * 按用户名统计行数，原生 SQL 绕过软删除过滤条件，命中 uk_users_username
      */
-    boolean existsByUsername(String username);
+    @Query(value = "SELECT COUNT(*) FROM users WHERE username = :username", nativeQuery = true)
+    long countByUsernameIncludingDeleted(@Param("username") String username);
 
     /**
      * 检查邮箱是否存在
      */
     boolean existsByEmail(String email);
 
+    /**
+     * 搜索用户名、邮箱或全名包含关键词的用户（不区分大小写），仅在内存搜索索引停用时使用
+     */
+    @Query("SELECT u FROM User u WHERE " +
+           "LOWER(u.username) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
+           "LOWER(u.email) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
+           "LOWER(u.fullName) LIKE LOWER(CONCAT('%', :keyword, '%')) " +
+           "ORDER BY u.id")
+    Page<User> searchByKeyword(@Param("keyword") String keyword, Pageable pageable);
+
+    /**
+     * 仅更新指定用户的密码哈希，不加载实体、不触发其他字段的脏检查；同时递增版本号，
+     * 使基于旧版本的并发修改（{@code patch}）返回冲突，而不是覆盖这次密码修改
+     */
+    @Modifying
+    @Query("UPDATE User u SET u.password = :password, u.version = u.version + 1 WHERE u.username = :username")
+    int updatePasswordByUsername(@Param("username") String username, @Param("password") String password);
+
 }
\ No newline at end of file
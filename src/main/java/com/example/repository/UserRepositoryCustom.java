@@ -0,0 +1,16 @@
+package com.example.repository;
+
+import com.example.domain.User;
+
+import java.util.Optional;
+
+/**
+ * UserRepository 的自定义查询
+ */
+public interface UserRepositoryCustom {
+
+    /**
+     * 根据用户名查找用户，通过自然 ID 加载，命中二级缓存时不执行 SQL
+     */
+    Optional<User> findByUsername(String username);
+}
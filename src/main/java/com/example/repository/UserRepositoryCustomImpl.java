@@ -0,0 +1,26 @@
+package com.example.repository;
+
+import com.example.domain.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+
+import java.util.Optional;
+
+/**
+ * {@link UserRepositoryCustom} 实现
+ */
+public class UserRepositoryCustomImpl implements UserRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Optional<User> findByUsername(String username) {
+        // 按主键/自然 ID 加载不会应用 @SQLRestriction，需自行排除已软删除的用户
+        return entityManager.unwrap(Session.class)
+                .bySimpleNaturalId(User.class)
+                .loadOptional(username)
+                .filter(user -> !Boolean.TRUE.equals(user.getDeleted()));
+    }
+}
@@ -1,20 +1,26 @@
 package com.example.service;
 
 import com.example.common.exception.BusinessException;
+import com.example.common.search.EntitySearchIndex;
 import com.example.domain.AppConfig;
 import com.example.dto.UpdateAppConfigRequest;
 import com.example.repository.AppConfigRepository;
 import com.example.service.base.AbstractService;
+import com.example.service.base.CountMode;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.BeanUtils;
+import org.springframework.cache.Cache;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -28,6 +34,23 @@ import java.util.stream.Collectors;
 public class AppConfigService extends AbstractService<AppConfig, Long> {
 
     private final AppConfigRepository appConfigRepository;
+    private final EntitySearchIndex entitySearchIndex;
+
+    @Override
+    protected String getCacheName() {
+        return "config";
+    }
+
+    /**
+     * 配置还按键、分组等维度缓存，无法按 ID 精确清除，直接清空
+     */
+    @Override
+    protected void evictCache(Collection<Long> ids) {
+        Cache cache = getCache();
+        if (cache != null) {
+            cache.clear();
+        }
+    }
 
     /**
      * 创建配置
@@ -45,28 +68,17 @@ public class AppConfigService extends AbstractService<AppConfig, Long> {
     }
 
     /**
-     * 更新配置
+     * 更新配置，只修改请求中不为 null 的字段；{@code request.version} 不为空时检查是否被并发修改
      */
     @Transactional
     @CacheEvict(value = "config", allEntries = true)
     public AppConfig updateConfig(Long id, UpdateAppConfigRequest request) {
-        AppConfig config = getById(id);
-
-        if (config.getIsSystem()) {
-            throw new BusinessException("系统配置不允许修改");
-        }
-
-        if (request.getConfigValue() != null) {
-            config.setConfigValue(request.getConfigValue());
-        }
-        if (request.getDescription() != null) {
-            config.setDescription(request.getDescription());
-        }
-        if (request.getIsEditable() != null) {
-            config.setIsEditable(request.getIsEditable());
-        }
-
-        return appConfigRepository.save(config);
+        return patch(id, request.getVersion(), config -> {
+            if (config.getIsSystem()) {
+                throw new BusinessException("系统配置不允许修改");
+            }
+            copyNonNullProperties(request, config);
+        });
     }
 
     /**
@@ -160,9 +172,23 @@ public class AppConfigService extends AbstractService<AppConfig, Long> {
     }
 
     /**
-     * 搜索配置
+     * 搜索配置键或描述包含关键词的配置，通过内存索引查找，不扫描数据库，结果按 ID 升序；
+     * 索引因超出文档数上限停用时回退到数据库 LIKE 查询
      */
     public Page<AppConfig> searchConfigs(String keyword, Pageable pageable) {
-        return appConfigRepository.searchByKeyword(keyword, pageable);
+        return entitySearchIndex.<Long>search(AppConfig.class, keyword)
+                .map(ids -> findPageByIds(ids, pageable))
+                .orElseGet(() -> appConfigRepository.searchByKeyword(keyword, pageable));
+    }
+
+    /**
+     * 分页获取配置列表，并指定总数的统计方式
+     */
+    public Slice<AppConfig> getConfigsPage(String configGroup, Pageable pageable, CountMode countMode) {
+        if (configGroup != null && !configGroup.isEmpty()) {
+            Specification<AppConfig> spec = (root, query, cb) -> cb.equal(root.get("configGroup"), configGroup);
+            return findPage(spec, pageable, countMode, "group:" + configGroup);
+        }
+        return findAll(pageable, countMode);
     }
-}
\ No newline at end of file
+}
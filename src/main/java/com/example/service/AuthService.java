@@ -2,13 +2,14 @@ package com.example.service;
 
 import java.util.Objects;
 
-import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.AccountStatusUserDetailsChecker;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.DisabledException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetailsChecker;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
@@ -23,8 +24,10 @@ import com.example.common.security.JwtProperties;
 import com.example.domain.User;
 import com.example.dto.LoginRequest;
 import com.example.dto.LoginResponse;
+import com.example.dto.RefreshTokenRequest;
 import com.example.dto.RegisterRequest;
 import com.example.repository.UserRepository;
+import com.example.service.RefreshTokenService.RefreshSession;
 
 import jakarta.annotation.Nullable;
 import jakarta.servlet.http.HttpServletRequest;
@@ -40,45 +43,55 @@ import lombok.extern.slf4j.Slf4j;
 @RequiredArgsConstructor
 public class AuthService {
 
+    /**
+     * 用户不存在时参与比对的明文，用于生成等价耗时的假哈希
+     */
+    private static final String USER_NOT_FOUND_PASSWORD = "userNotFoundPassword";
+
+    private final UserDetailsChecker userDetailsChecker = new AccountStatusUserDetailsChecker();
+
+    /**
+     * 用户不存在时用于比对的假哈希，延迟生成，保证与当前编码器的开销一致
+     */
+    private volatile String userNotFoundEncodedPassword;
+
     private final UserRepository userRepository;
-    private final AuthenticationManager authenticationManager;
     private final JwtService jwtService;
     private final PasswordEncoder passwordEncoder;
     private final JwtProperties jwtProperties;
     private final TokenBlacklistService tokenBlacklistService;
+    private final RefreshTokenService refreshTokenService;
+    private final UserDetailsService userDetailsService;
+    private final UserService userService;
 
     /**
      * 用户登录
+     * <p>
+     * 只查询一次用户记录，直接基于该记录构建 {@link UserDetails} 并校验密码，不再经过
+     * {@code AuthenticationManager} 重复加载用户。除非密码哈希需要升级，否则不写数据库。
+     * <p>
+     * 这里刻意不开启事务：密码校验是整个请求中最耗时的部分，不应在此期间占用数据库连接。
      */
-    @Transactional
     public LoginResponse login(LoginRequest request) {
         String username = request.getUsername();
 
         log.info("User login attempt: {}", username);
 
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new RuntimeException("用户不存在"));
+        User user = userRepository.findByUsername(username).orElse(null);
 
         try {
             // 执行认证
-            Authentication auth = authenticationManager.authenticate(
-                    new UsernamePasswordAuthenticationToken(username, request.getPassword()));
+            UserDetails userDetails = authenticate(user, request.getPassword());
+            Authentication auth = UsernamePasswordAuthenticationToken.authenticated(
+                    userDetails, null, userDetails.getAuthorities());
 
             // 设置认证信息到上下文
             SecurityContextHolder.getContext().setAuthentication(auth);
-            // 加载用户详情
-            UserDetails userDetails = (UserDetails) auth.getPrincipal();
-            // 生成 JWT Token
-            String accessToken = jwtService.generateToken(userDetails);
-
-            userRepository.save(user);
 
-            // 构建响应
-            LoginResponse response = LoginResponse.builder()
-                    .token(accessToken)
-                    .expiresIn(jwtProperties.getExpiration().toSeconds())
-                    .user(user)
-                    .build();
+            // 开启新的登录会话，签发 Access Token 和 Refresh Token
+            LoginResponse response = buildLoginResponse(userDetails, user);
+            // 最近登录时间异步批量写入，不增加登录延迟
+            userService.recordLogin(user.getId());
 
             log.info("用户登录成功: {}", username);
             return response;
@@ -123,21 +136,20 @@ public class AuthService {
             throw new RuntimeException("密码确认不匹配");
         }
 
+        // 密码哈希在专用线程池中执行，饱和时抛出的 TooManyRequestsException 需原样返回 429，不能被下面的 catch 吞掉
+        String encodedPassword = passwordEncoder.encode(request.getPassword());
+
         try {
             // 创建用户
             User user = new User();
             user.setUsername(username);
             user.setEmail(email);
-            user.setPassword(passwordEncoder.encode(request.getPassword()));
+            user.setPassword(encodedPassword);
             user.setFullName(Objects.requireNonNullElse(request.getFullName(), username));
             userRepository.save(user);
 
             // 构建响应
-            LoginResponse response = LoginResponse.builder()
-                    .token(jwtService.generateToken(username)) // 生成 JWT Token
-                    .expiresIn(jwtProperties.getExpiration().toSeconds())
-                    .user(user)
-                    .build();
+            LoginResponse response = buildLoginResponse(userDetailsService.loadUserByUsername(username), user);
 
             log.info("注册成功: {}", username);
             return response;
@@ -148,6 +160,25 @@ public class AuthService {
         }
     }
 
+    /**
+     * 使用 Refresh Token 换取新的 Access Token
+     * <p>
+     * 传入的 Refresh Token 会被立即作废并轮换为新的 Token；重复使用已轮换的 Token 会导致整个会话被吊销。
+     * 与登录相同，签发前重新校验账号状态（禁用、锁定、过期）和用户级黑名单，不通过时吊销整个会话。
+     */
+    public LoginResponse refresh(RefreshTokenRequest request) {
+        RefreshSession session = refreshTokenService.rotate(request.getRefreshToken());
+        UserDetails userDetails = checkRefreshable(session);
+
+        log.debug("Access token refreshed - {}, session: {}", session.username(), session.sessionId());
+        return LoginResponse.builder()
+                .token(jwtService.generateToken(userDetails, session.sessionId()))
+                .expiresIn(jwtProperties.getExpiration().toSeconds())
+                .refreshToken(session.token())
+                .refreshExpiresIn(jwtProperties.getRefreshExpiration().toSeconds())
+                .build();
+    }
+
     /**
      * 用户登出
      */
@@ -159,6 +190,11 @@ public class AuthService {
             if (token != null) {
                 // 将 token 添加到黑名单
                 tokenBlacklistService.addToBlacklist(token);
+                // 吊销 token 所属的登录会话，使其 Refresh Token 一并失效
+                String sessionId = jwtService.getSessionId(token);
+                if (sessionId != null) {
+                    refreshTokenService.revokeSession(sessionId);
+                }
             }
             log.info("用户成功登出 - {}#{}", user.getUsername(), user.getId());
         } catch (Exception e) {
@@ -202,6 +238,92 @@ public class AuthService {
         return userId;
     }
 
+    /**
+     * 基于已查询到的用户记录校验账号状态和密码
+     *
+     * @param user        用户记录，不存在时为 {@code null}
+     * @param rawPassword 明文密码
+     * @return 认证通过的用户详情
+     * @throws AuthenticationException 如果用户不存在、密码错误或账号状态异常
+     */
+    private UserDetails authenticate(@Nullable User user, String rawPassword) {
+        if (user == null) {
+            // 用户不存在时同样执行一次哈希比对，避免通过响应耗时探测用户名是否存在
+            passwordEncoder.matches(rawPassword, getUserNotFoundEncodedPassword());
+            throw new BadCredentialsException("Bad credentials");
+        }
+
+        CustomUserDetails userDetails = userDetailsService.toUserDetails(user);
+        userDetailsChecker.check(userDetails);
+        if (!passwordEncoder.matches(rawPassword, userDetails.getPassword())) {
+            throw new BadCredentialsException("Bad credentials");
+        }
+        return upgradePasswordIfNecessary(userDetails, rawPassword);
+    }
+
+    /**
+     * 如果已存储的密码哈希算法或成本参数已过时，趁登录拿到明文时重新哈希
+     * <p>
+     * 升级失败不影响本次登录，下次登录会再次尝试。
+     */
+    private UserDetails upgradePasswordIfNecessary(UserDetails userDetails, String rawPassword) {
+        if (!passwordEncoder.upgradeEncoding(userDetails.getPassword())) {
+            return userDetails;
+        }
+        try {
+            UserDetails upgraded = userDetailsService.updatePassword(userDetails, passwordEncoder.encode(rawPassword));
+            log.info("用户密码哈希已升级: {}", userDetails.getUsername());
+            return upgraded;
+        } catch (RuntimeException e) {
+            log.warn("用户密码哈希升级失败 - {}: {}", userDetails.getUsername(), e.getMessage());
+            return userDetails;
+        }
+    }
+
+    private String getUserNotFoundEncodedPassword() {
+        String encoded = userNotFoundEncodedPassword;
+        if (encoded == null) {
+            encoded = passwordEncoder.encode(USER_NOT_FOUND_PASSWORD);
+            userNotFoundEncodedPassword = encoded;
+        }
+        return encoded;
+    }
+
+    /**
+     * 校验会话所属用户是否仍然可以获取新的 Token，不可以时吊销会话
+     *
+     * @throws BusinessException 如果用户已不存在、账号状态异常或已被加入黑名单
+     */
+    private UserDetails checkRefreshable(RefreshSession session) {
+        String username = session.username();
+        try {
+            UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+            userDetailsChecker.check(userDetails);
+            if (!tokenBlacklistService.isUserBlacklisted(username)) {
+                return userDetails;
+            }
+            log.warn("刷新失败 - 用户已被加入黑名单: {}", username);
+        } catch (AuthenticationException e) {
+            log.warn("刷新失败 - 用户 {} 账号不可用: {}", username, e.getMessage());
+        }
+        refreshTokenService.revokeSession(session.sessionId());
+        throw BusinessException.invalidToken();
+    }
+
+    /**
+     * 开启新的登录会话，构建包含 Access Token 和 Refresh Token 的响应
+     */
+    private LoginResponse buildLoginResponse(UserDetails userDetails, User user) {
+        RefreshSession session = refreshTokenService.issue(userDetails.getUsername());
+        return LoginResponse.builder()
+                .token(jwtService.generateToken(userDetails, session.sessionId()))
+                .expiresIn(jwtProperties.getExpiration().toSeconds())
+                .refreshToken(session.token())
+                .refreshExpiresIn(jwtProperties.getRefreshExpiration().toSeconds())
+                .user(user)
+                .build();
+    }
+
     /**
      * 从请求上下文中提取 Token
      */
@@ -0,0 +1,148 @@
+package com.example.service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+
+import com.example.common.exception.TooManyRequestsException;
+import com.example.common.security.AuthThrottleProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 登录/注册限流服务
+ * <p>
+ * 必须在任何密码哈希和数据库查询之前调用，按客户端 IP 和用户名两个维度限流：
+ * <ol>
+ * <li>本地令牌桶：纯内存判断，挡住单实例上的突发请求，不产生任何网络开销</li>
+ * <li>Redis 滑动窗口：通过 Lua 脚本原子地维护有序集合，实现跨实例的总量限制</li>
+ * </ol>
+ * Redis 不可用时只依赖本地令牌桶（fail open），不影响正常登录。
+ */
+@Service
+@Slf4j
+public class AuthThrottleService {
+
+    private static final String KEY_PREFIX = "auth:throttle:";
+
+    /**
+     * 滑动窗口脚本：清理窗口外的记录，未超限时记录本次请求并返回 1，超限返回 0
+     */
+    private static final RedisScript<Long> SLIDING_WINDOW_SCRIPT = new DefaultRedisScript<>("""
+            local key = KEYS[1]
+            local now = tonumber(ARGV[1])
+            local window = tonumber(ARGV[2])
+            local limit = tonumber(ARGV[3])
+            redis.call('ZREMRANGEBYSCORE', key, 0, now - window)
+            if redis.call('ZCARD', key) >= limit then
+                return 0
+            end
+            redis.call('ZADD', key, now, ARGV[4])
+            redis.call('PEXPIRE', key, window)
+            return 1
+            """, Long.class);
+
+    private final AuthThrottleProperties properties;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final Cache<String, TokenBucket> buckets;
+
+    public AuthThrottleService(AuthThrottleProperties properties, StringRedisTemplate stringRedisTemplate) {
+        this.properties = properties;
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(properties.getLocalMaxKeys())
+                .expireAfterAccess(Duration.ofMinutes(10))
+                .build();
+    }
+
+    /**
+     * 登录限流，按 IP 和用户名同时限制
+     *
+     * @throws TooManyRequestsException 如果任一维度超限
+     */
+    public void checkLogin(String clientIp, String username) {
+        String normalizedUsername = username == null ? "" : username.trim().toLowerCase(Locale.ROOT);
+        check("login:ip:" + clientIp, properties.getIpLimit());
+        check("login:user:" + normalizedUsername, properties.getUsernameLimit());
+    }
+
+    /**
+     * 注册限流，按 IP 限制
+     *
+     * @throws TooManyRequestsException 如果超限
+     */
+    public void checkRegister(String clientIp) {
+        check("register:ip:" + clientIp, properties.getIpLimit());
+    }
+
+    private void check(String key, int clusterLimit) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+
+        TokenBucket bucket = buckets.get(key,
+                k -> new TokenBucket(properties.getLocalCapacity(), properties.getLocalRefillPerMinute()));
+        if (!bucket.tryAcquire()) {
+            log.warn("Auth request throttled by local bucket: {}", key);
+            throw new TooManyRequestsException();
+        }
+
+        if (!tryAcquireInWindow(key, clusterLimit)) {
+            log.warn("Auth request throttled by cluster window: {}", key);
+            throw new TooManyRequestsException();
+        }
+    }
+
+    private boolean tryAcquireInWindow(String key, int limit) {
+        try {
+            Long allowed = stringRedisTemplate.execute(SLIDING_WINDOW_SCRIPT,
+                    List.of(KEY_PREFIX + key),
+                    String.valueOf(System.currentTimeMillis()),
+                    String.valueOf(properties.getWindow().toMillis()),
+                    String.valueOf(limit),
+                    UUID.randomUUID().toString());
+            return allowed == null || allowed == 1L;
+        } catch (Exception e) {
+            log.warn("Failed to check cluster throttle window for {}, falling back to local bucket: {}",
+                    key, e.getMessage());
+            return true;
+        }
+    }
+
+    /**
+     * 简单的令牌桶，按流逝时间连续补充令牌
+     */
+    private static final class TokenBucket {
+
+        private final int capacity;
+        private final double refillPerNano;
+        private double tokens;
+        private long lastRefillAt;
+
+        TokenBucket(int capacity, int refillPerMinute) {
+            this.capacity = capacity;
+            this.refillPerNano = refillPerMinute / (double) Duration.ofMinutes(1).toNanos();
+            this.tokens = capacity;
+            this.lastRefillAt = System.nanoTime();
+        }
+
+        synchronized boolean tryAcquire() {
+            long now = System.nanoTime();
+            tokens = Math.min(capacity, tokens + (now - lastRefillAt) * refillPerNano);
+            lastRefillAt = now;
+            if (tokens < 1) {
+                return false;
+            }
+            tokens -= 1;
+            return true;
+        }
+    }
+}
@@ -30,6 +30,8 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class JwtService {
 
+    private static final String SESSION_ID_CLAIM = "sid";
+
     private final JwtProperties jwtProperties;
     private final UserDetailsService userDetailsService;
 
@@ -54,6 +56,16 @@ public class JwtService {
     }
 
     public String generateToken(UserDetails userDetails) {
+        return generateToken(userDetails, null);
+    }
+
+    /**
+     * 生成 Access Token，并将登录会话 ID 写入 {@code sid} 声明
+     *
+     * @param userDetails 用户详情
+     * @param sessionId   Refresh Token 所属的会话 ID，可以为 {@code null}
+     */
+    public String generateToken(UserDetails userDetails, String sessionId) {
         Instant now = Instant.now();
         List<String> roles = userDetails.getAuthorities().stream()
                 .map(GrantedAuthority::getAuthority)
@@ -63,6 +75,7 @@ public class JwtService {
                 .subject(userDetails.getUsername())
                 .issuer(jwtProperties.getIssuer())
                 .claim("roles", roles)
+                .claim(SESSION_ID_CLAIM, sessionId)
                 .issuedAt(Date.from(now))
                 .expiration(jwtProperties.getExpirationDateSince(now))
                 .signWith(secretKey, Jwts.SIG.HS256)
@@ -89,4 +102,16 @@ public class JwtService {
                 .getPayload()
                 .getSubject();
     }
+
+    /**
+     * 获取 Token 中的登录会话 ID，没有则返回 {@code null}
+     */
+    public String getSessionId(String token) {
+        return Jwts.parser()
+                .verifyWith(secretKey)
+                .build()
+                .parseSignedClaims(token)
+                .getPayload()
+                .get(SESSION_ID_CLAIM, String.class);
+    }
 }
@@ -0,0 +1,137 @@
+package com.example.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.UUID;
+
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+
+import com.example.common.exception.BusinessException;
+import com.example.common.security.JwtProperties;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Refresh Token 服务
+ * <p>
+ * Refresh Token 是不透明的随机字符串，只在 Redis 中保存其 SHA-256 摘要。每次刷新都会轮换：
+ * 旧 Token 立即作废并记录为“已使用”，同时在同一会话（family）下签发新 Token。
+ * 如果一个已使用过的 Refresh Token 被再次提交，说明它可能已经泄露，此时整个会话会被吊销。
+ * <p>
+ * Redis 键结构：
+ * <ul>
+ * <li>{@code auth:refresh:token:<digest>} - 当前有效的 Refresh Token，值为 {@code <sessionId>:<username>}</li>
+ * <li>{@code auth:refresh:used:<digest>} - 已轮换掉的 Refresh Token，值为 sessionId，用于重放检测</li>
+ * <li>{@code auth:refresh:session:<sessionId>} - 会话标记，删除即表示会话被吊销</li>
+ * </ul>
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class RefreshTokenService {
+
+    private static final String TOKEN_PREFIX = "auth:refresh:token:";
+    private static final String USED_PREFIX = "auth:refresh:used:";
+    private static final String SESSION_PREFIX = "auth:refresh:session:";
+
+    private static final int TOKEN_BYTES = 32;
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final JwtProperties jwtProperties;
+
+    /**
+     * 为用户开启一个新的登录会话并签发第一个 Refresh Token
+     *
+     * @param username 用户名
+     * @return 新签发的 Refresh Token 及其会话信息
+     */
+    public RefreshSession issue(String username) {
+        String sessionId = UUID.randomUUID().toString().replace("-", "");
+        stringRedisTemplate.opsForValue().set(SESSION_PREFIX + sessionId, username, jwtProperties.getRefreshExpiration());
+        return store(sessionId, username);
+    }
+
+    /**
+     * 轮换 Refresh Token：作废传入的 Token，并在同一会话下签发新的 Token
+     *
+     * @param refreshToken 客户端提交的 Refresh Token
+     * @return 新签发的 Refresh Token 及其会话信息
+     * @throws BusinessException 如果 Token 无效、已过期、已被使用或会话已被吊销
+     */
+    public RefreshSession rotate(String refreshToken) {
+        String digest = digest(refreshToken);
+
+        // GETDEL 保证同一个 Token 只能被成功轮换一次
+        String value = stringRedisTemplate.opsForValue().getAndDelete(TOKEN_PREFIX + digest);
+        if (value == null) {
+            String sessionId = stringRedisTemplate.opsForValue().get(USED_PREFIX + digest);
+            if (sessionId != null) {
+                // 已使用过的 Token 被重放，视为泄露，吊销整个会话
+                revokeSession(sessionId);
+                log.warn("Refresh token reuse detected, session revoked: {}", sessionId);
+                throw new BusinessException("REFRESH_TOKEN_REUSED", "刷新令牌已被使用，请重新登录");
+            }
+            throw BusinessException.invalidToken();
+        }
+
+        int separator = value.indexOf(':');
+        String sessionId = value.substring(0, separator);
+        String username = value.substring(separator + 1);
+
+        if (!Boolean.TRUE.equals(stringRedisTemplate.hasKey(SESSION_PREFIX + sessionId))) {
+            throw BusinessException.invalidToken();
+        }
+
+        stringRedisTemplate.opsForValue().set(USED_PREFIX + digest, sessionId, jwtProperties.getRefreshExpiration());
+        stringRedisTemplate.expire(SESSION_PREFIX + sessionId, jwtProperties.getRefreshExpiration());
+        return store(sessionId, username);
+    }
+
+    /**
+     * 吊销会话，该会话下所有 Refresh Token 立即失效
+     *
+     * @param sessionId 会话 ID
+     */
+    public void revokeSession(String sessionId) {
+        stringRedisTemplate.delete(SESSION_PREFIX + sessionId);
+    }
+
+    private RefreshSession store(String sessionId, String username) {
+        String token = generateToken();
+        stringRedisTemplate.opsForValue().set(TOKEN_PREFIX + digest(token), sessionId + ":" + username,
+                jwtProperties.getRefreshExpiration());
+        return new RefreshSession(token, sessionId, username);
+    }
+
+    private static String generateToken() {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        RANDOM.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    private static String digest(String token) {
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(md.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * 签发的 Refresh Token 及其所属会话
+     *
+     * @param token     Refresh Token 原文，只返回给客户端，不落库
+     * @param sessionId 会话 ID，同时写入 Access Token 的 sid 声明，用于登出时吊销会话
+     * @param username  用户名
+     */
+    public record RefreshSession(String token, String sessionId, String username) {
+    }
+}
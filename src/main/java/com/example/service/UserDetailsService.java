@@ -1,13 +1,17 @@
 package com.example.service;
 
 import java.util.Arrays;
+import java.util.List;
 import java.util.Optional;
 
+import com.example.common.cache.SecondLevelCacheInvalidator;
 import com.example.common.security.CustomUserDetails;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.example.domain.User;
 import com.example.repository.UserRepository;
@@ -18,18 +22,28 @@ import lombok.RequiredArgsConstructor;
  * 自定义的 UserDetailsService 实现类，用于加载用户详情 (UserDetails)
  * 更简单的办法是让 {@link UserService} 实现 {@link UserDetailsService} 接口，
  * 分开到此单独类处理 Spring Security 的 UserDetails 相关逻辑，是为了职责单一，关注点分离
+ * <p>
+ * 同时实现 {@link UserDetailsPasswordService}，用于在登录成功后将过时的密码哈希升级为当前算法和成本参数
  */
 @Service
 @RequiredArgsConstructor
-public class UserDetailsService implements org.springframework.security.core.userdetails.UserDetailsService {
+public class UserDetailsService implements org.springframework.security.core.userdetails.UserDetailsService,
+                UserDetailsPasswordService {
 
         private final UserRepository userRepository;
+        private final SecondLevelCacheInvalidator secondLevelCacheInvalidator;
 
         @Override
         public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
                 User user = userRepository.findByUsername(username)
                                 .orElseThrow(() -> new UsernameNotFoundException("User not found"));
+                return toUserDetails(user);
+        }
 
+        /**
+         * 将已查询到的用户记录转换为 {@link CustomUserDetails}，供登录等已持有用户记录的场景复用，避免重复查询
+         */
+        public CustomUserDetails toUserDetails(User user) {
                 var authorities = Arrays.stream(Optional.ofNullable(user.getRoles())
                                 .orElse("")
                                 .split(","))
@@ -41,4 +55,16 @@ public class UserDetailsService implements org.springframework.security.core.use
                 return new CustomUserDetails(user.getId(), user.getUsername(), user.getPassword(), authorities);
         }
 
+        @Override
+        @Transactional
+        public UserDetails updatePassword(UserDetails user, String newPassword) {
+                userRepository.updatePasswordByUsername(user.getUsername(), newPassword);
+                if (user instanceof CustomUserDetails details) {
+                        secondLevelCacheInvalidator.publish(User.class, List.of(details.getUserId()));
+                        return new CustomUserDetails(details.getUserId(), details.getUsername(), newPassword,
+                                        details.getAuthorities());
+                }
+                return loadUserByUsername(user.getUsername());
+        }
+
 }
@@ -1,20 +1,31 @@
 package com.example.service;
 
 import com.example.common.exception.BusinessException;
+import com.example.common.search.EntitySearchIndex;
+import com.example.common.writebehind.WriteBehindChannel;
+import com.example.common.writebehind.WriteBehindQueue;
 import com.example.domain.User;
+import com.example.dto.UpdateUserRequest;
+import com.example.dto.UserSummary;
 import com.example.repository.UserRepository;
 import com.example.service.base.AbstractService;
+import com.example.service.base.CountMode;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
 import java.time.LocalDateTime;
+import java.util.Comparator;
 import java.util.List;
+import java.util.function.BinaryOperator;
 
 /**
  * 用户服务实现类
@@ -26,6 +37,21 @@ public class UserService extends AbstractService<User, Long> {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final EntitySearchIndex entitySearchIndex;
+    private final WriteBehindQueue writeBehindQueue;
+
+    /**
+     * 最近登录时间的写后通道，同一用户在一个刷新间隔内的多次登录只写入最晚的一次
+     */
+    private WriteBehindChannel<Long, LocalDateTime> lastLoginUpdates;
+
+    @PostConstruct
+    public void initWriteBehind() {
+        lastLoginUpdates = writeBehindQueue.channel("user.last_login",
+                "UPDATE users SET last_login_at = ? WHERE id = ?",
+                (id, loginAt) -> new Object[]{loginAt, id},
+                BinaryOperator.maxBy(Comparator.naturalOrder()), User.class);
+    }
 
     /**
      * 创建用户
@@ -46,37 +72,48 @@ public class UserService extends AbstractService<User, Long> {
     }
 
     /**
-     * 更新用户
+     * 更新用户，只修改请求中不为 null 且与当前值不同的字段；{@code user.version} 不为空时检查是否被并发修改
      */
     @Transactional
-    public User updateUser(Long id, User user) {
-        User existingUser = getById(id);
-
-        if (!existingUser.getUsername().equals(user.getUsername()) && userRepository.existsByUsername(user.getUsername())) {
-            throw new BusinessException("用户名已存在");
-        }
-
-        if (!existingUser.getEmail().equals(user.getEmail()) && userRepository.existsByEmail(user.getEmail())) {
-            throw new BusinessException("邮箱已存在");
-        }
-
-        existingUser.setUsername(user.getUsername());
-        existingUser.setEmail(user.getEmail());
-        existingUser.setAvatar(user.getAvatar());
-        existingUser.setUpdatedAt(LocalDateTime.now());
+    public User updateUser(Long id, UpdateUserRequest request) {
+        return patch(id, request.getVersion(), existingUser -> {
+            if (request.getUsername() != null && !existingUser.getUsername().equals(request.getUsername())) {
+                if (userRepository.existsByUsername(request.getUsername())) {
+                    throw new BusinessException("用户名已存在");
+                }
+                existingUser.setUsername(request.getUsername());
+            }
+            if (request.getEmail() != null && !existingUser.getEmail().equals(request.getEmail())) {
+                if (userRepository.existsByEmail(request.getEmail())) {
+                    throw new BusinessException("邮箱已存在");
+                }
+                existingUser.setEmail(request.getEmail());
+            }
+            if (request.getAvatar() != null) {
+                existingUser.setAvatar(request.getAvatar());
+            }
+            if (request.getFullName() != null) {
+                existingUser.setFullName(request.getFullName());
+            }
+        });
+    }
 
-        return userRepository.save(existingUser);
+    /**
+     * 记录用户登录时间，只放入写后队列，不在登录请求中访问数据库（因此也不开启事务）
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public void recordLogin(Long id) {
+        lastLoginUpdates.offer(id, LocalDateTime.now());
     }
 
     /**
-     * 删除用户
+     * 删除用户（软删除），与 {@link #batchDeleteUsers(List)} 走同一条路径
      */
     @Transactional
     public void deleteUser(Long id) {
-        if (!userRepository.existsById(id)) {
+        if (bulkDeleteById(List.of(id)) == 0) {
             throw new BusinessException("用户不存在");
         }
-        userRepository.deleteById(id);
     }
 
     /**
@@ -86,6 +123,31 @@ public class UserService extends AbstractService<User, Long> {
         return userRepository.findAll(pageable);
     }
 
+    /**
+     * 分页获取用户列表，并指定总数的统计方式
+     */
+    public Slice<User> getUsers(Pageable pageable, CountMode countMode) {
+        return findAll(pageable, countMode);
+    }
+
+    /**
+     * 搜索用户名、邮箱或全名包含关键词的用户，通过内存索引查找，不扫描数据库，结果按 ID 升序；
+     * 索引因超出文档数上限停用时回退到数据库 LIKE 查询
+     */
+    public Page<UserSummary> searchUsers(String keyword, Pageable pageable) {
+        return entitySearchIndex.<Long>search(User.class, keyword)
+                .map(ids -> findPageByIds(ids, pageable))
+                .orElseGet(() -> userRepository.searchByKeyword(keyword, pageable))
+                .map(UserSummary::of);
+    }
+
+    /**
+     * 分页获取用户摘要列表，只查询列表展示需要的列
+     */
+    public Slice<UserSummary> getUserSummaries(Pageable pageable, CountMode countMode) {
+        return findAll(UserSummary.class, pageable, countMode);
+    }
+
     /**
      * 更新用户状态
      */
@@ -126,15 +188,14 @@ public class UserService extends AbstractService<User, Long> {
     }
 
     /**
-     * 批量删除用户
+     * 批量删除用户（软删除），任一用户不存在或已删除时整体回滚
      */
     @Transactional
     public void batchDeleteUsers(List<Long> userIds) {
-        List<User> users = userRepository.findAllById(userIds);
-        if (users.size() != userIds.size()) {
+        int affected = bulkDeleteById(userIds);
+        if (affected != userIds.stream().distinct().count()) {
             throw new BusinessException("部分用户不存在");
         }
-        userRepository.deleteAll(users);
     }
 
     /**
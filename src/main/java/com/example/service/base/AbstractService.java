@@ -1,27 +1,92 @@
 package com.example.service.base;
 
+import com.example.common.CursorSlice;
+import com.example.common.cache.SecondLevelCacheInvalidator;
+import com.example.common.concurrent.AsyncQueryExecutor;
+import com.example.common.search.EntitySearchIndex;
 import com.example.common.exception.BusinessException;
+import com.example.common.exception.ConflictException;
 import com.example.common.exception.EntityNotFoundException;
 import com.example.domain.base.BaseEntity;
-import jakarta.persistence.QueryHint;
+import com.example.domain.base.SoftDeletableEntity;
+import jakarta.annotation.Nullable;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.OptimisticLockException;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.generator.Generator;
+import org.hibernate.jpa.HibernateHints;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.type.Type;
 import org.springframework.aop.framework.Advised;
 import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.BeanWrapper;
 import org.springframework.beans.BeansException;
+import org.springframework.beans.PropertyAccessorFactory;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.context.ApplicationContext;
+import org.springframework.core.convert.support.DefaultConversionService;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.auditing.AuditingHandler;
 import org.springframework.data.domain.*;
+import org.springframework.data.jpa.convert.QueryByExamplePredicateBuilder;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.projection.ProjectionFactory;
+import org.springframework.data.projection.ProjectionInformation;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.Assert;
 
+import java.beans.PropertyDescriptor;
 import java.io.Serializable;
 import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.RecordComponent;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * AbstractService 是所有服务类的基类，提供通用的 CRUD 操作。
@@ -55,6 +120,24 @@ import java.util.Optional;
 @Slf4j
 public abstract class AbstractService<T extends BaseEntity<ID>, ID extends Serializable> implements BaseService<T, ID>, InitializingBean {
 
+    /**
+     * 流式查询每批从数据库拉取的行数。
+     * <p>
+     * 只在流式查询上通过查询提示设置，不配置全局的 {@code hibernate.jdbc.fetch_size}：MySQL 在 URL 开启
+     * {@code useCursorFetch=true} 时，只有设置了 fetch size 的语句才会使用服务端游标，普通查询不受影响。
+     */
+    private static final int STREAM_FETCH_SIZE = 100;
+
+    /**
+     * {@link #bulkInsert(Collection)}、{@link #bulkDeleteById(Collection)} 默认每块的行数。
+     */
+    private static final int DEFAULT_BULK_CHUNK_SIZE = 1000;
+
+    /**
+     * 用于创建接口投影的代理实例
+     */
+    private static final ProjectionFactory PROJECTION_FACTORY = new SpelAwareProxyProjectionFactory();
+
     /**
      * 实体类类型，用于泛型处理和元数据访问。
      */
@@ -68,6 +151,27 @@ public abstract class AbstractService<T extends BaseEntity<ID>, ID extends Seria
     protected JpaRepository<T, ID> repository;
     @Autowired
     private ApplicationContext applicationContext;
+    /**
+     * 用于构建 Spring Data 派生查询无法表达的查询，如游标分页。
+     */
+    @PersistenceContext
+    protected EntityManager entityManager;
+    @Autowired
+    private TotalCountCache totalCountCache;
+    @Autowired
+    private CompiledQueryCache compiledQueryCache;
+    @Autowired
+    private AsyncQueryExecutor asyncQueryExecutor;
+    @Autowired
+    private ServiceMetrics serviceMetrics;
+    /**
+     * 当前服务在容器中的代理，首次发起异步查询时解析
+     */
+    private volatile BaseService<T, ID> self;
+    /**
+     * 批量插入语句及参数元数据，首次使用时根据 Hibernate 映射生成。
+     */
+    private volatile BulkInsertMetadata bulkInsertMetadata;
 
     /**
      * 构造函数，通过反射获取实体类的类型。
@@ -223,16 +327,12 @@ public abstract class AbstractService<T extends BaseEntity<ID>, ID extends Seria
 
     @Override
     public Optional<T> findById(ID id) {
-        log.debug("根据 ID 查找实体 - {}, id: {}", getEntityName(), id);
-        Optional<T> result = repository.findById(id);
-        log.debug("查找到的实体 - {}, id: {}, result: {}", getEntityName(), id, result.orElse(null));
-        return result;
+        return measure("findById", () -> repository.findById(id));
     }
 
     @Override
     public List<T> findAllById(Iterable<ID> ids) {
-        log.debug("正在批量查询指 ID 集合实体 - {}, ids: {}", getEntityName(), ids);
-        return repository.findAllById(ids);
+        return measure("findAllById", () -> repository.findAllById(ids));
     }
 
     @Override
@@ -242,12 +342,7 @@ public abstract class AbstractService<T extends BaseEntity<ID>, ID extends Seria
 
     @Override
     public List<T> findAllByExample(T example, ExampleMatcher matcher) {
-        log.debug("""
-                正在使用示例对象进行查询 -
-                entity: {}
-                example: {}
-                matcher: {}""", getEntityName(), example, matcher);
-        return repository.findAll(Example.of(example, matcher));
+        return measure("findAllByExample", () -> repository.findAll(Example.of(example, matcher)));
     }
 
     @Override
@@ -257,132 +352,976 @@ public abstract class AbstractService<T extends BaseEntity<ID>, ID extends Seria
 
     @Override
     public List<T> findAllByExample(T example, Sort sort, ExampleMatcher matcher) {
-        log.debug("""
-                正在使用 Example 对象进行查询并排序 - 
-                example: {}
-                sort: {}
-                matcher: {}""", example, sort, matcher);
-        return repository.findAll(Example.of(example, matcher), sort);
+        return measure("findAllByExample", () -> repository.findAll(Example.of(example, matcher), sort));
     }
 
     @Override
     public Page<T> findAllByExample(T example, Pageable pageable) {
-        log.debug("正在使用 Example 对象进行分页查询 - {}", example);
         ExampleMatcher matcher = ExampleMatcher.matching().withStringMatcher(ExampleMatcher.StringMatcher.CONTAINING).withIgnoreCase();
-        return repository.findAll(Example.of(example, matcher), pageable);
+        return measure("findAllByExample", () -> repository.findAll(Example.of(example, matcher), pageable));
     }
 
     @Override
-    @QueryHints(@QueryHint(name = "org.hibernate.readOnly", value = "true"))
     public List<T> findAll() {
-        log.debug("正在查询所有实体 - {}", getEntityName());
-        return repository.findAll();
+        return measure("findAll", () -> repository.findAll());
     }
 
     @Override
     public Page<T> findAll(Pageable pageable) {
-        log.debug("正在分页查询所有实体 - {}, pageable: {}", getEntityName(), pageable);
-        return repository.findAll(pageable);
+        return measure("findAll", () -> repository.findAll(pageable));
     }
 
 
     @Override
-    @QueryHints(@QueryHint(name = "org.hibernate.readOnly", value = "true"))
     public List<T> findAll(Sort sort) {
-        log.debug("正在查询所有实体并排序 - {}, sort: {}", getEntityName(), sort);
-        return repository.findAll(sort);
+        return measure("findAll", () -> repository.findAll(sort));
+    }
+
+    @Override
+    public long forEach(Sort sort, Consumer<? super T> action) {
+        return forEach(null, sort, action);
+    }
+
+    @Override
+    @Transactional(readOnly = true, propagation = Propagation.MANDATORY)
+    public Stream<T> streamAll(Sort sort) {
+        return stream(null, sort);
+    }
+
+    @Override
+    public Slice<T> findAll(Pageable pageable, CountMode countMode) {
+        return measure("findAll", () -> findPage(null, pageable, countMode, "all"));
+    }
+
+    @Override
+    public <P> Slice<P> findAll(Class<P> projection, Pageable pageable, CountMode countMode) {
+        return measure("findAllProjection", () -> findPage(null, projection, pageable, countMode, "all"));
+    }
+
+    @Override
+    public CursorSlice<T> findAllByCursor(@Nullable String cursor, int size, Sort sort) {
+        return measure("findAllByCursor", () -> findByCursor(null, cursor, size, sort));
+    }
+
+    @Override
+    public CursorSlice<T> findAllByExample(T example, @Nullable String cursor, int size, Sort sort) {
+        ExampleMatcher matcher = ExampleMatcher.matching().withStringMatcher(ExampleMatcher.StringMatcher.CONTAINING).withIgnoreCase();
+        Example<T> query = Example.of(example, matcher);
+        return measure("findAllByCursor", () ->
+                findByCursor((root, cq, cb) -> QueryByExamplePredicateBuilder.getPredicate(root, cb, query), cursor, size, sort));
     }
 
     @Override
     @Transactional
     public T save(T entity) {
-        log.debug("正在保存实体对象 - {}", entity);
-        try {
-            T savedEntity = repository.save(entity);
-            log.info("成功保存实体对象 - {}, ID: {}", getEntityName(), savedEntity.getId());
-            return savedEntity;
-        } catch (Exception e) {
-            throw wrapException("保存实体对象", e);
-        }
+        return measure("save", "保存实体对象", () -> repository.save(entity));
     }
 
     @Override
     @Transactional
     public T saveAndFlush(T entity) {
-        log.debug("正在保存实体对象并立即刷新 - {}", entity);
-        try {
-            T savedEntity = repository.saveAndFlush(entity);
-            log.info("成功保存实体对象并立即刷新 - {}, ID: {}", getEntityName(), savedEntity.getId());
-            return savedEntity;
-        } catch (Exception e) {
-            log.error("保存实体对象并立即刷新失败 - {}", entity, e);
-            throw wrapException("保存实体对象并立即刷新", e);
-        }
+        return measure("saveAndFlush", "保存实体对象并立即刷新", () -> repository.saveAndFlush(entity));
     }
 
     @Override
     @Transactional
     public List<T> saveAll(Iterable<T> entities) {
-        log.debug("正在批量保存实体对象 - {}", getEntityName());
+        return measure("saveAll", "批量保存实体对象", () -> repository.saveAll(entities));
+    }
+
+    @Override
+    @Transactional
+    public T patch(ID id, @Nullable Long expectedVersion, Consumer<? super T> changes) {
+        return measure("patch", () -> {
+            T entity = repository.findById(id).orElseThrow(() -> new EntityNotFoundException(getEntityName(), id));
+            if (expectedVersion != null && !expectedVersion.equals(entity.getVersion())) {
+                throw new ConflictException("数据已被其他人修改，请刷新后重试");
+            }
+            changes.accept(entity);
+            try {
+                // 立即刷新：@DynamicUpdate 的实体只写入变化的列，UPDATE 以读取时的版本号为条件，
+                // 读取后被并发修改时在这里失败，而不是等到事务提交
+                entityManager.flush();
+            } catch (Exception e) {
+                throw wrapException("部分更新实体对象", e);
+            }
+            evictCacheAfterCommit(List.of(id));
+            return entity;
+        });
+    }
+
+    @Override
+    @Transactional
+    public T patch(ID id, @Nullable Long expectedVersion, Object changes) {
+        return patch(id, expectedVersion, entity -> copyNonNullProperties(changes, entity));
+    }
+
+    @Override
+    @Transactional
+    public List<ID> bulkInsert(Collection<T> entities) {
+        return bulkInsert(entities, DEFAULT_BULK_CHUNK_SIZE);
+    }
+
+    @Override
+    @Transactional
+    public List<ID> bulkInsert(Collection<T> entities, int chunkSize) {
+        Assert.isTrue(chunkSize > 0, "chunkSize must be greater than 0");
+        if (entities.isEmpty()) {
+            return List.of();
+        }
+
+        long start = System.nanoTime();
         try {
-            List<T> savedEntities = repository.saveAll(entities);
-            log.info("成功批量保存 {} 个实体对象 - {}", savedEntities.size(), getEntityName());
-            return savedEntities;
+            // 先刷新持久化上下文中的待执行语句，保证执行顺序与调用顺序一致
+            entityManager.flush();
+            // 绕过了实体监听器，手动填充 @CreatedDate 等审计字段
+            applicationContext.getBeanProvider(AuditingHandler.class).ifAvailable(handler -> entities.forEach(handler::markCreated));
+
+            BulkInsertMetadata metadata = getBulkInsertMetadata();
+            SharedSessionContractImplementor session = entityManager.unwrap(SharedSessionContractImplementor.class);
+            List<ID> ids = session.doReturningWork(connection -> {
+                List<ID> generatedIds = new ArrayList<>(entities.size());
+                try (PreparedStatement ps = metadata.idGenerator() == null
+                        ? connection.prepareStatement(metadata.sql(), Statement.RETURN_GENERATED_KEYS)
+                        : connection.prepareStatement(metadata.sql())) {
+                    List<T> chunk = new ArrayList<>(chunkSize);
+                    for (T entity : entities) {
+                        bindInsertParameters(ps, metadata, entity, session);
+                        ps.addBatch();
+                        chunk.add(entity);
+                        if (chunk.size() == chunkSize) {
+                            executeInsertChunk(ps, metadata, chunk, generatedIds);
+                        }
+                    }
+                    if (!chunk.isEmpty()) {
+                        executeInsertChunk(ps, metadata, chunk, generatedIds);
+                    }
+                }
+                return generatedIds;
+            });
+
+            if (metadata.persister().canWriteToCache()) {
+                // 语句绕过了 Hibernate，本实例的查询缓存不知道表已变化，提交后清除；其他实例由失效通知清除
+                afterCommit(() -> metadata.persister().getFactory().getCache().evictDefaultQueryRegion());
+                applicationContext.getBeanProvider(SecondLevelCacheInvalidator.class)
+                        .ifAvailable(invalidator -> invalidator.publish(getEntityClass(), ids));
+            }
+            applicationContext.getBeanProvider(EntitySearchIndex.class)
+                    .ifAvailable(index -> index.refresh(getEntityClass(), ids));
+
+            serviceMetrics.success(getEntityName(), "bulkInsert", start, ids.size());
+            return ids;
         } catch (Exception e) {
-            throw wrapException("批量保存实体对象", e);
+            serviceMetrics.failure(getEntityName(), "bulkInsert", start, e);
+            throw wrapException("批量插入实体对象", e);
         }
     }
 
     @Override
     @Transactional
     public void deleteById(ID id) {
-        log.debug("正在删除实体对象 - {}, ID: {}", getEntityName(), id);
-        try {
+        measure("deleteById", "删除实体对象", () -> {
             repository.deleteById(id);
-            log.info("成功删除实体对象 - {}, ID: {}", getEntityName(), id);
-        } catch (Exception e) {
-            throw wrapException("删除实体对象", e);
-        }
+            return 1;
+        });
     }
 
     @Override
     @Transactional
     public void delete(T entity) {
-        log.debug("正在删除实体对象 - {}", entity);
-        try {
+        measure("delete", "删除实体对象", () -> {
             repository.delete(entity);
-            log.info("成功删除实体对象 - {}", entity);
-        } catch (Exception e) {
-            throw wrapException("删除实体对象", e);
-        }
+            return 1;
+        });
     }
 
     @Override
     @Transactional
     public void deleteAll(Iterable<? extends T> entities) {
-        log.debug("正在删除实体对象列表: {}", entities);
-        try {
+        measure("deleteAll", "删除实体对象列表", () -> {
             repository.deleteAll(entities);
-            log.info("成功删除实体对象列表: {}", entities);
+            return entities instanceof Collection<?> collection ? collection.size() : null;
+        });
+    }
+
+    @Override
+    @Transactional
+    public int bulkDeleteById(Collection<ID> ids) {
+        return bulkDeleteById(ids, DEFAULT_BULK_CHUNK_SIZE);
+    }
+
+    @Override
+    @Transactional
+    public int bulkDeleteById(Collection<ID> ids, int chunkSize) {
+        Assert.isTrue(chunkSize > 0, "chunkSize must be greater than 0");
+        if (ids.isEmpty()) {
+            return 0;
+        }
+
+        boolean softDelete = SoftDeletableEntity.class.isAssignableFrom(getEntityClass());
+        long start = System.nanoTime();
+        try {
+            // 先把持久化上下文中的修改写入数据库，避免之后被覆盖
+            entityManager.flush();
+
+            String entityName = entityManager.getMetamodel().entity(getEntityClass()).getName();
+            String statement = softDelete
+                    ? "UPDATE " + entityName + " e SET e.deleted = true, e.deletedAt = :deletedAt, e.deletedBy = :deletedBy,"
+                    + " e.version = e.version + 1"
+                    + " WHERE e.id IN :ids AND e.deleted = false"
+                    : "DELETE FROM " + entityName + " e WHERE e.id IN :ids";
+            LocalDateTime deletedAt = LocalDateTime.now();
+            String deletedBy = SoftDeletableEntity.currentOperator();
+
+            List<ID> distinctIds = new ArrayList<>(new LinkedHashSet<>(ids));
+            int affected = 0;
+            for (int from = 0; from < distinctIds.size(); from += chunkSize) {
+                List<ID> chunk = distinctIds.subList(from, Math.min(from + chunkSize, distinctIds.size()));
+                Query query = entityManager.createQuery(statement).setParameter("ids", chunk);
+                if (softDelete) {
+                    query.setParameter("deletedAt", deletedAt).setParameter("deletedBy", deletedBy);
+                }
+                affected += query.executeUpdate();
+            }
+            evictCacheAfterCommit(distinctIds);
+            // 批量语句不触发实体事件，需手动通知其他实例清除二级缓存、刷新搜索索引
+            applicationContext.getBeanProvider(SecondLevelCacheInvalidator.class)
+                    .ifAvailable(invalidator -> invalidator.publish(getEntityClass(), distinctIds));
+            applicationContext.getBeanProvider(EntitySearchIndex.class)
+                    .ifAvailable(index -> index.refresh(getEntityClass(), distinctIds));
+
+            serviceMetrics.success(getEntityName(), "bulkDeleteById", start, affected);
+            return affected;
         } catch (Exception e) {
-            throw wrapException("删除实体对象列表", e);
+            serviceMetrics.failure(getEntityName(), "bulkDeleteById", start, e);
+            throw wrapException("批量删除实体对象", e);
         }
     }
 
     @Override
     public boolean exists(ID id) {
-        log.debug("正在检查实体是否存在 - {}, ID: {}", getEntityName(), id);
-        return repository.existsById(id);
+        return measure("exists", () -> repository.existsById(id));
     }
 
     @Override
     public long count() {
-        log.debug("正在统计实体数量 - {}", getEntityName());
-        return repository.count();
+        return measure("count", () -> repository.count());
+    }
+
+    // === Async Methods ===
+    // 异步方法本身不开启事务，避免在调用线程上占用连接；实际查询通过代理调用同步方法，在执行线程上开启只读事务
+
+    @Override
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+    public CompletableFuture<Optional<T>> findByIdAsync(ID id) {
+        return async("findById", service -> service.findById(id));
+    }
+
+    @Override
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+    public CompletableFuture<List<T>> findAllByIdAsync(Iterable<ID> ids) {
+        return async("findAllById", service -> service.findAllById(ids));
+    }
+
+    @Override
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+    public CompletableFuture<List<T>> findAllAsync(Sort sort) {
+        return async("findAll", service -> service.findAll(sort));
+    }
+
+    @Override
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+    public CompletableFuture<Page<T>> findAllAsync(Pageable pageable) {
+        return async("findAll", service -> service.findAll(pageable));
+    }
+
+    @Override
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+    public CompletableFuture<Slice<T>> findAllAsync(Pageable pageable, CountMode countMode) {
+        return async("findAll", service -> service.findAll(pageable, countMode));
+    }
+
+    @Override
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+    public <P> CompletableFuture<Slice<P>> findAllAsync(Class<P> projection, Pageable pageable, CountMode countMode) {
+        return async("findAllProjection", service -> service.findAll(projection, pageable, countMode));
+    }
+
+    @Override
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+    public CompletableFuture<Boolean> existsAsync(ID id) {
+        return async("exists", service -> service.exists(id));
+    }
+
+    @Override
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+    public CompletableFuture<Long> countAsync() {
+        return async("count", BaseService::count);
+    }
+
+    /**
+     * 在异步查询执行器上通过当前服务的代理执行查询，保证事务等切面在执行线程上生效
+     *
+     * @param operation 操作名称，用于指标标签
+     */
+    protected <R> CompletableFuture<R> async(String operation, Function<BaseService<T, ID>, R> query) {
+        BaseService<T, ID> proxy = self();
+        return asyncQueryExecutor.submit(getEntityName() + "." + operation, () -> query.apply(proxy));
+    }
+
+    /**
+     * 当前服务在容器中的代理
+     */
+    @SuppressWarnings("unchecked")
+    private BaseService<T, ID> self() {
+        BaseService<T, ID> proxy = self;
+        if (proxy == null) {
+            proxy = applicationContext.getBean(getClass());
+            self = proxy;
+        }
+        return proxy;
     }
 
     // === Helper Methods ===
 
+    /**
+     * 按给定的 ID 顺序分页加载实体，用于外部索引（如 {@link EntitySearchIndex}）返回的结果。
+     * <p>
+     * 只加载当前页的实体，通过 {@code multiLoad} 优先从二级缓存读取；分页参数中的排序被忽略，以 ID 的顺序为准。
+     *
+     * @param orderedIds 全部命中的 ID，已按期望的顺序排列
+     * @param pageable   分页参数
+     * @return 分页结果，总数为 ID 的数量
+     */
+    protected Page<T> findPageByIds(List<ID> orderedIds, Pageable pageable) {
+        List<ID> pageIds = orderedIds;
+        if (pageable.isPaged()) {
+            int from = (int) Math.min(pageable.getOffset(), orderedIds.size());
+            pageIds = orderedIds.subList(from, Math.min(from + pageable.getPageSize(), orderedIds.size()));
+        }
+        List<T> content = pageIds.isEmpty() ? List.of() : entityManager.unwrap(Session.class)
+                .byMultipleIds(getEntityClass())
+                .multiLoad(pageIds)
+                .stream()
+                .filter(Objects::nonNull)
+                .toList();
+        return new PageImpl<>(content, pageable, orderedIds.size());
+    }
+
+    /**
+     * 实体对应的缓存名称，批量操作绕过了 {@code @CacheEvict}，需要据此清理缓存。
+     * 默认为 {@code null}，即不使用缓存。
+     */
+    @Nullable
+    protected String getCacheName() {
+        return null;
+    }
+
+    /**
+     * 批量修改或删除后清理缓存，默认逐个清除 {@code id:<ID>} 形式的缓存键，在事务提交后调用。
+     * 缓存键不只包含 ID 的子类（如按业务键缓存）应重写此方法。
+     *
+     * @param ids 受影响的实体 ID
+     */
+    protected void evictCache(Collection<ID> ids) {
+        Cache cache = getCache();
+        if (cache != null) {
+            ids.forEach(id -> cache.evict("id:" + id));
+        }
+    }
+
+    /**
+     * 在事务提交后调用 {@link #evictCache(Collection)}，没有事务时立即调用。
+     * 提交前清除的话，并发读取会从数据库读到旧数据并重新写入缓存，直到缓存过期
+     */
+    private void evictCacheAfterCommit(Collection<ID> ids) {
+        afterCommit(() -> evictCache(ids));
+    }
+
+    /**
+     * 在当前事务提交后执行，没有事务时立即执行
+     */
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * 获取 {@link #getCacheName()} 对应的缓存，未配置时返回 {@code null}
+     */
+    @Nullable
+    protected Cache getCache() {
+        String cacheName = getCacheName();
+        if (cacheName == null) {
+            return null;
+        }
+        CacheManager cacheManager = applicationContext.getBeanProvider(CacheManager.class).getIfAvailable();
+        return cacheManager == null ? null : cacheManager.getCache(cacheName);
+    }
+
+    /**
+     * 批量插入使用的 INSERT 语句及参与插入的属性
+     *
+     * @param sql             INSERT 语句
+     * @param persister       实体的 Hibernate 持久化元数据
+     * @param propertyIndexes 参与插入的属性下标
+     * @param idClass         主键的 Java 类型
+     * @param idGenerator     插入前生成主键的生成器，主键由数据库生成时为 null
+     */
+    private record BulkInsertMetadata(String sql, AbstractEntityPersister persister, int[] propertyIndexes, Class<?> idClass,
+                                      @Nullable BeforeExecutionGenerator idGenerator) {
+    }
+
+    private BulkInsertMetadata getBulkInsertMetadata() {
+        BulkInsertMetadata metadata = bulkInsertMetadata;
+        if (metadata == null) {
+            metadata = createBulkInsertMetadata();
+            bulkInsertMetadata = metadata;
+        }
+        return metadata;
+    }
+
+    /**
+     * 根据 Hibernate 映射生成 INSERT 语句，包含所有可插入的普通属性列；主键在插入前生成时（如 Snowflake）同时包含主键列
+     */
+    private BulkInsertMetadata createBulkInsertMetadata() {
+        SessionFactoryImplementor sessionFactory = entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class);
+        AbstractEntityPersister persister = (AbstractEntityPersister) sessionFactory.getMappingMetamodel().getEntityDescriptor(getEntityClass());
+
+        boolean[] insertability = persister.getPropertyInsertability();
+        List<Integer> propertyIndexes = new ArrayList<>();
+        List<String> columns = new ArrayList<>();
+
+        Generator generator = persister.getGenerator();
+        BeforeExecutionGenerator idGenerator = null;
+        if (!generator.generatedOnExecution() && generator instanceof BeforeExecutionGenerator beforeExecutionGenerator) {
+            idGenerator = beforeExecutionGenerator;
+            columns.addAll(List.of(persister.getIdentifierColumnNames()));
+        }
+        for (int i = 0; i < persister.getPropertyNames().length; i++) {
+            String[] propertyColumns = persister.getPropertyColumnNames(i);
+            if (!insertability[i] || propertyColumns.length == 0) {
+                continue;
+            }
+            propertyIndexes.add(i);
+            columns.addAll(List.of(propertyColumns));
+        }
+
+        String sql = "INSERT INTO %s (%s) VALUES (%s)".formatted(
+                persister.getTableName(),
+                String.join(", ", columns),
+                String.join(", ", Collections.nCopies(columns.size(), "?")));
+        log.debug("批量插入语句 - {}: {}", getEntityName(), sql);
+        return new BulkInsertMetadata(sql, persister, propertyIndexes.stream().mapToInt(Integer::intValue).toArray(),
+                persister.getIdentifierType().getReturnedClass(), idGenerator);
+    }
+
+    private void bindInsertParameters(PreparedStatement ps, BulkInsertMetadata metadata, T entity,
+                                      SharedSessionContractImplementor session) throws SQLException {
+        AbstractEntityPersister persister = metadata.persister();
+        if (entity.getVersion() == null) {
+            // 与 persist 一致，新插入的行从版本 0 开始
+            entity.setVersion(0L);
+        }
+        Object[] values = persister.getPropertyValues(entity);
+        Type[] types = persister.getPropertyTypes();
+        int parameterIndex = 1;
+        if (metadata.idGenerator() != null) {
+            if (entity.getId() == null) {
+                @SuppressWarnings("unchecked")
+                ID id = (ID) metadata.idGenerator().generate(session, entity, null, EventType.INSERT);
+                entity.setId(id);
+            }
+            persister.getIdentifierType().nullSafeSet(ps, entity.getId(), parameterIndex, session);
+            parameterIndex += persister.getIdentifierColumnNames().length;
+        }
+        for (int propertyIndex : metadata.propertyIndexes()) {
+            // 由 Hibernate 类型负责绑定，保证枚举、转换器、关联外键等与普通 persist 的结果一致
+            types[propertyIndex].nullSafeSet(ps, values[propertyIndex], parameterIndex, session);
+            parameterIndex += persister.getPropertyColumnNames(propertyIndex).length;
+        }
+    }
+
+    private void executeInsertChunk(PreparedStatement ps, BulkInsertMetadata metadata, List<T> chunk, List<ID> generatedIds) throws SQLException {
+        ps.executeBatch();
+        if (metadata.idGenerator() != null) {
+            // 主键已在绑定参数时生成
+            chunk.forEach(entity -> generatedIds.add(entity.getId()));
+            chunk.clear();
+            return;
+        }
+        try (ResultSet keys = ps.getGeneratedKeys()) {
+            int i = 0;
+            while (keys.next()) {
+                @SuppressWarnings("unchecked")
+                ID id = (ID) DefaultConversionService.getSharedInstance().convert(keys.getObject(1), metadata.idClass());
+                chunk.get(i++).setId(id);
+                generatedIds.add(id);
+            }
+        }
+        chunk.clear();
+    }
+
+    /**
+     * 流式遍历符合条件的实体，每个实体处理完后立即从持久化上下文中分离，内存占用与总行数无关。
+     *
+     * @param spec   查询条件，可以为 null
+     * @param sort   排序规则
+     * @param action 对每个实体执行的操作
+     * @return 处理的实体数量
+     */
+    protected long forEach(@Nullable Specification<T> spec, Sort sort, Consumer<? super T> action) {
+        long start = System.nanoTime();
+        long count = 0;
+        try (Stream<T> stream = stream(spec, sort)) {
+            for (T entity : (Iterable<T>) stream::iterator) {
+                action.accept(entity);
+                count++;
+            }
+        } catch (RuntimeException e) {
+            serviceMetrics.failure(getEntityName(), "forEach", start, e);
+            throw e;
+        }
+        serviceMetrics.success(getEntityName(), "forEach", start, count);
+        return count;
+    }
+
+    /**
+     * 打开一个基于只进游标的实体流。
+     * <p>
+     * 查询以只读方式执行，每批从数据库拉取 {@value #STREAM_FETCH_SIZE} 行（MySQL 需在连接 URL 中开启
+     * {@code useCursorFetch=true}），流中的每个实体在被消费后即从持久化上下文中分离。
+     * 返回的流必须在事务内消费并关闭。
+     *
+     * @param spec 查询条件，可以为 null
+     * @param sort 排序规则
+     * @return 实体流
+     */
+    protected Stream<T> stream(@Nullable Specification<T> spec, Sort sort) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<T> query = cb.createQuery(getEntityClass());
+        Root<T> root = query.from(getEntityClass());
+        query.select(root);
+        if (spec != null) {
+            Predicate predicate = spec.toPredicate(root, query, cb);
+            if (predicate != null) {
+                query.where(predicate);
+            }
+        }
+        if (sort.isSorted()) {
+            query.orderBy(QueryUtils.toOrders(sort, root, cb));
+        }
+
+        // 上一个实体在取下一个实体时分离，保证调用方处理当前实体期间它仍处于托管状态
+        Object[] previous = new Object[1];
+        return entityManager.createQuery(query)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, STREAM_FETCH_SIZE)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream()
+                .peek(entity -> {
+                    if (previous[0] != null) {
+                        entityManager.detach(previous[0]);
+                    }
+                    previous[0] = entity;
+                })
+                .onClose(() -> {
+                    if (previous[0] != null && entityManager.contains(previous[0])) {
+                        entityManager.detach(previous[0]);
+                    }
+                });
+    }
+
+    /**
+     * 按指定的总数统计方式分页查询。
+     * <p>
+     * 数据查询总是多取一行来判断是否有下一页；总数按 {@code countMode} 决定是否统计以及如何统计：
+     * {@link CountMode#NONE} 返回不含总数的 {@link Slice}，其余方式返回 {@link Page}。
+     *
+     * @param spec      查询条件，可以为 null
+     * @param pageable  分页参数
+     * @param countMode 总数统计方式
+     * @param countKey  标识查询条件的缓存键，用于 {@link CountMode#CACHED} 区分不同条件下的总数，
+     *                  相同条件必须使用相同的键，如 {@code "group:ui"}
+     * @return 分页结果
+     */
+    protected Slice<T> findPage(@Nullable Specification<T> spec, Pageable pageable, CountMode countMode, String countKey) {
+        if (countMode == CountMode.EXACT && spec == null) {
+            return repository.findAll(pageable);
+        }
+        return findPage(spec, pageable, countMode, countKey, fetchExtraRow -> findContent(spec, pageable, fetchExtraRow));
+    }
+
+    /**
+     * 按指定的总数统计方式分页查询投影，只查询投影需要的列，结果不经过持久化上下文。
+     *
+     * @param spec       查询条件，可以为 null
+     * @param projection 投影类型，record 或 closed 接口投影
+     * @param pageable   分页参数
+     * @param countMode  总数统计方式
+     * @param countKey   标识查询条件的缓存键
+     * @return 分页结果
+     * @see #findPage(Specification, Pageable, CountMode, String)
+     */
+    protected <P> Slice<P> findPage(@Nullable Specification<T> spec, Class<P> projection, Pageable pageable,
+                                    CountMode countMode, String countKey) {
+        return findPage(spec, pageable, countMode, countKey,
+                fetchExtraRow -> findProjectedContent(spec, projection, pageable, fetchExtraRow));
+    }
+
+    /**
+     * @param contentLoader 查询当前页数据，参数表示是否多取一行用于判断是否有下一页
+     */
+    private <R> Slice<R> findPage(@Nullable Specification<T> spec, Pageable pageable, CountMode countMode, String countKey,
+                                  Function<Boolean, List<R>> contentLoader) {
+        if (countMode == CountMode.EXACT) {
+            return new PageImpl<>(contentLoader.apply(false), pageable, countBy(spec));
+        }
+
+        List<R> rows = contentLoader.apply(true);
+        boolean hasNext = pageable.isPaged() && rows.size() > pageable.getPageSize();
+        List<R> content = hasNext ? new ArrayList<>(rows.subList(0, pageable.getPageSize())) : rows;
+        if (countMode == CountMode.NONE) {
+            return new SliceImpl<>(content, pageable, hasNext);
+        }
+
+        long total;
+        if (countMode == CountMode.APPROXIMATE && spec == null) {
+            total = totalCountCache.get(getEntityName() + ":approximate", this::estimateCount);
+        } else {
+            total = totalCountCache.get(getEntityName() + ":" + countKey, () -> countBy(spec));
+        }
+        // 缓存或估算的总数可能落后于实际数据，至少要覆盖到当前页，保证 hasNext 与实际查询结果一致
+        long seen = (pageable.isPaged() ? pageable.getOffset() : 0) + content.size() + (hasNext ? 1 : 0);
+        return new PageImpl<>(content, pageable, Math.max(total, seen));
+    }
+
+    /**
+     * 查询符合条件的全部实体，{@link Condition} 使用编译缓存。
+     *
+     * @param spec 查询条件，可以为 null
+     * @param sort 排序规则
+     */
+    protected List<T> findList(@Nullable Specification<T> spec, Sort sort) {
+        return findContent(spec, Pageable.unpaged(sort), false);
+    }
+
+    private List<T> findContent(@Nullable Specification<T> spec, Pageable pageable, boolean fetchExtraRow) {
+        if (spec instanceof Condition<T> condition) {
+            TypedQuery<T> query = compiledQueryCache.select(entityManager, getEntityClass(), condition, pageable.getSort());
+            return applyPaging(query, pageable, fetchExtraRow).getResultList();
+        }
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<T> query = cb.createQuery(getEntityClass());
+        Root<T> root = query.from(getEntityClass());
+        query.select(root);
+        return createPagedQuery(query, root, spec, pageable, fetchExtraRow).getResultList();
+    }
+
+    /**
+     * 只查询投影需要的列：record 投影通过构造器表达式由 Hibernate 直接实例化，
+     * 接口投影先查询为 {@link Tuple} 再包装为代理。
+     */
+    private <P> List<P> findProjectedContent(@Nullable Specification<T> spec, Class<P> projection, Pageable pageable,
+                                             boolean fetchExtraRow) {
+        List<String> properties = getProjectionProperties(projection);
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+
+        if (projection.isRecord()) {
+            CriteriaQuery<P> query = cb.createQuery(projection);
+            Root<T> root = query.from(getEntityClass());
+            query.select(cb.construct(projection, properties.stream().map(property -> path(root, property)).toArray(Selection[]::new)));
+            return createPagedQuery(query, root, spec, pageable, fetchExtraRow).getResultList();
+        }
+
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<T> root = query.from(getEntityClass());
+        query.multiselect(properties.stream().<Selection<?>>map(property -> path(root, property).alias(property)).toList());
+        return createPagedQuery(query, root, spec, pageable, fetchExtraRow).getResultList().stream()
+                .map(tuple -> {
+                    Map<String, Object> values = new HashMap<>(properties.size());
+                    properties.forEach(property -> values.put(property, tuple.get(property)));
+                    return PROJECTION_FACTORY.createProjection(projection, values);
+                })
+                .toList();
+    }
+
+    private <R> TypedQuery<R> createPagedQuery(CriteriaQuery<R> query, Root<T> root, @Nullable Specification<T> spec,
+                                               Pageable pageable, boolean fetchExtraRow) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        if (spec != null) {
+            Predicate predicate = spec.toPredicate(root, query, cb);
+            if (predicate != null) {
+                query.where(predicate);
+            }
+        }
+        if (pageable.getSort().isSorted()) {
+            query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+        }
+
+        return applyPaging(entityManager.createQuery(query), pageable, fetchExtraRow);
+    }
+
+    private static <R> TypedQuery<R> applyPaging(TypedQuery<R> query, Pageable pageable, boolean fetchExtraRow) {
+        if (pageable.isPaged()) {
+            query.setFirstResult((int) pageable.getOffset());
+            query.setMaxResults(pageable.getPageSize() + (fetchExtraRow ? 1 : 0));
+        }
+        return query;
+    }
+
+    /**
+     * 获取投影需要查询的实体属性：record 取组件名，接口取 getter 对应的属性名
+     *
+     * @throws IllegalArgumentException 如果是依赖 SpEL 的 open projection，无法确定需要的列
+     */
+    private static List<String> getProjectionProperties(Class<?> projection) {
+        if (projection.isRecord()) {
+            return Arrays.stream(projection.getRecordComponents()).map(RecordComponent::getName).toList();
+        }
+        ProjectionInformation information = PROJECTION_FACTORY.getProjectionInformation(projection);
+        Assert.isTrue(projection.isInterface() && information.isClosed(),
+                () -> "Projection must be a record or a closed interface projection: " + projection.getName());
+        return information.getInputProperties().stream().map(PropertyDescriptor::getName).toList();
+    }
+
+    /**
+     * 按条件统计实体数量，{@link Condition} 使用编译缓存，其他 Specification 每次构建 Criteria 查询。
+     *
+     * @param spec 查询条件，为 null 时统计全部
+     */
+    protected long countBy(@Nullable Specification<T> spec) {
+        if (spec == null) {
+            return repository.count();
+        }
+        if (spec instanceof Condition<T> condition) {
+            return compiledQueryCache.count(entityManager, getEntityClass(), condition).getSingleResult();
+        }
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<T> root = query.from(getEntityClass());
+        query.select(cb.count(root));
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    /**
+     * 从 MySQL 的表统计信息中估算行数，统计信息不可用时退化为精确统计。
+     * <p>
+     * 估算值包含已软删除的行，只适合用于展示大致的总数和页数。
+     */
+    private long estimateCount() {
+        try {
+            SessionFactoryImplementor sessionFactory = entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class);
+            EntityPersister persister = sessionFactory.getMappingMetamodel().getEntityDescriptor(getEntityClass());
+            String tableName = ((AbstractEntityPersister) persister).getTableName().replace("`", "");
+            Object rows = entityManager.createNativeQuery("""
+                            SELECT TABLE_ROWS FROM information_schema.TABLES
+                            WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = :tableName""")
+                    .setParameter("tableName", tableName)
+                    .getResultList()
+                    .stream()
+                    .findFirst()
+                    .orElse(null);
+            if (rows instanceof Number number) {
+                return number.longValue();
+            }
+        } catch (Exception e) {
+            log.warn("估算实体数量失败，改为精确统计 - {}: {}", getEntityName(), e.getMessage());
+        }
+        return repository.count();
+    }
+
+    /**
+     * 游标（keyset）分页查询。
+     * <p>
+     * 排序规则末尾总是追加 id 作为唯一的决胜字段，下一页的条件是“排序键严格位于游标之后”，展开为
+     * {@code s1 > ? OR (s1 = ? AND id > ?)} 的形式（降序时为 {@code <}），
+     * 配合 {@code (s1, id)} 上的联合索引即可直接定位，不需要像 OFFSET 那样扫描并丢弃前面的行。
+     * <p>
+     * 排序字段必须是非空列，否则含 null 的行无法参与比较。
+     *
+     * @param spec   额外的查询条件，可以为 null
+     * @param cursor 上一页返回的游标，查询第一页时为 null
+     * @param size   每页大小
+     * @param sort   排序规则，可以为 {@link Sort#unsorted()}，此时按 id 升序
+     * @return 当前页数据及下一页游标
+     */
+    protected CursorSlice<T> findByCursor(@Nullable Specification<T> spec, @Nullable String cursor, int size, Sort sort) {
+        Assert.isTrue(size > 0, "size must be greater than 0");
+
+        List<Sort.Order> orders = keysetOrders(sort);
+        String sortKey = orders.stream()
+                .map(order -> order.getProperty() + ":" + order.getDirection())
+                .collect(Collectors.joining(","));
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<T> query = cb.createQuery(getEntityClass());
+        Root<T> root = query.from(getEntityClass());
+
+        List<Path<Comparable<Object>>> paths = orders.stream()
+                .map(order -> this.<Comparable<Object>>path(root, order.getProperty()))
+                .toList();
+
+        List<Predicate> predicates = new ArrayList<>();
+        if (spec != null) {
+            Predicate predicate = spec.toPredicate(root, query, cb);
+            if (predicate != null) {
+                predicates.add(predicate);
+            }
+        }
+        if (cursor != null && !cursor.isBlank()) {
+            List<Object> values = KeysetCursor.decode(cursor, sortKey).values();
+            if (values.size() != orders.size()) {
+                throw BusinessException.invalidParameter("cursor");
+            }
+            predicates.add(keysetPredicate(cb, orders, paths, values));
+        }
+
+        List<Order> orderBy = new ArrayList<>();
+        for (int i = 0; i < orders.size(); i++) {
+            orderBy.add(orders.get(i).isAscending() ? cb.asc(paths.get(i)) : cb.desc(paths.get(i)));
+        }
+        query.select(root).where(predicates.toArray(Predicate[]::new)).orderBy(orderBy);
+
+        // 多取一条用于判断是否还有下一页，避免额外的 count 查询
+        List<T> rows = entityManager.createQuery(query).setMaxResults(size + 1).getResultList();
+        if (rows.size() <= size) {
+            return new CursorSlice<>(rows, size, null);
+        }
+
+        List<T> content = rows.subList(0, size);
+        BeanWrapper last = PropertyAccessorFactory.forBeanPropertyAccess(content.get(size - 1));
+        List<Object> lastValues = orders.stream().map(order -> last.getPropertyValue(order.getProperty())).toList();
+        return new CursorSlice<>(new ArrayList<>(content), size, new KeysetCursor(sortKey, lastValues).encode());
+    }
+
+    /**
+     * 在排序规则末尾追加 id，保证排序键唯一；id 的方向与最后一个排序字段保持一致，便于复用同一个联合索引。
+     */
+    private List<Sort.Order> keysetOrders(Sort sort) {
+        List<Sort.Order> orders = new ArrayList<>();
+        for (Sort.Order order : sort) {
+            if ("id".equals(order.getProperty())) {
+                orders.add(order);
+                return orders;
+            }
+            orders.add(order);
+        }
+        Sort.Direction direction = orders.isEmpty() ? Sort.Direction.ASC : orders.get(orders.size() - 1).getDirection();
+        orders.add(new Sort.Order(direction, "id"));
+        return orders;
+    }
+
+    /**
+     * 构建“排序键严格位于游标之后”的条件：
+     * {@code (p1 > v1) OR (p1 = v1 AND p2 > v2) OR ... }
+     */
+    private Predicate keysetPredicate(CriteriaBuilder cb, List<Sort.Order> orders,
+                                      List<Path<Comparable<Object>>> paths, List<Object> values) {
+        List<Predicate> alternatives = new ArrayList<>();
+        List<Predicate> equalities = new ArrayList<>();
+        for (int i = 0; i < orders.size(); i++) {
+            Path<Comparable<Object>> path = paths.get(i);
+            @SuppressWarnings("unchecked")
+            Comparable<Object> value = (Comparable<Object>) KeysetCursor.convert(values.get(i), path.getJavaType());
+            if (value == null) {
+                throw BusinessException.invalidParameter("cursor");
+            }
+
+            Predicate after = orders.get(i).isAscending() ? cb.greaterThan(path, value) : cb.lessThan(path, value);
+            List<Predicate> conjunction = new ArrayList<>(equalities);
+            conjunction.add(after);
+            alternatives.add(cb.and(conjunction.toArray(Predicate[]::new)));
+            equalities.add(cb.equal(path, value));
+        }
+        return cb.or(alternatives.toArray(Predicate[]::new));
+    }
+
+    /**
+     * 把 {@code source} 中值不为 null 的属性复制到实体的同名可写属性上，主键和版本号除外
+     *
+     * @param source 修改内容，通常是请求 DTO
+     * @param target 目标实体
+     */
+    protected void copyNonNullProperties(Object source, T target) {
+        BeanWrapper sourceWrapper = PropertyAccessorFactory.forBeanPropertyAccess(source);
+        BeanWrapper targetWrapper = PropertyAccessorFactory.forBeanPropertyAccess(target);
+        for (PropertyDescriptor descriptor : sourceWrapper.getPropertyDescriptors()) {
+            String name = descriptor.getName();
+            if ("class".equals(name) || "id".equals(name) || "version".equals(name)
+                    || descriptor.getReadMethod() == null || !targetWrapper.isWritableProperty(name)) {
+                continue;
+            }
+            Object value = sourceWrapper.getPropertyValue(name);
+            if (value != null) {
+                targetWrapper.setPropertyValue(name, value);
+            }
+        }
+    }
+
+    /**
+     * 解析属性路径，支持 {@code a.b} 形式的嵌套属性
+     */
+    private <Y> Path<Y> path(Root<T> root, String property) {
+        Path<?> path = root;
+        for (String part : property.split("\\.")) {
+            path = path.get(part);
+        }
+        @SuppressWarnings("unchecked")
+        Path<Y> typed = (Path<Y>) path;
+        return typed;
+    }
+
+    /**
+     * 执行一个操作并记录耗时和涉及的实体数（见 {@link ServiceMetrics}），异常原样抛出
+     *
+     * @param operation 操作名称，用于指标标签，如 findById
+     * @param action    操作逻辑
+     * @return 操作结果
+     */
+    protected <R> R measure(String operation, Supplier<R> action) {
+        long start = System.nanoTime();
+        try {
+            R result = action.get();
+            serviceMetrics.success(getEntityName(), operation, start, ServiceMetrics.rowsOf(result));
+            return result;
+        } catch (RuntimeException e) {
+            serviceMetrics.failure(getEntityName(), operation, start, e);
+            throw e;
+        }
+    }
+
+    /**
+     * 执行一个写操作并记录指标，异常经 {@link #wrapException} 包装后抛出
+     *
+     * @param operation   操作名称，用于指标标签
+     * @param description 操作描述，用于异常信息
+     * @param action      操作逻辑
+     * @return 操作结果
+     */
+    private <R> R measure(String operation, String description, Supplier<R> action) {
+        long start = System.nanoTime();
+        try {
+            R result = action.get();
+            serviceMetrics.success(getEntityName(), operation, start, ServiceMetrics.rowsOf(result));
+            return result;
+        } catch (RuntimeException e) {
+            serviceMetrics.failure(getEntityName(), operation, start, e);
+            throw wrapException(description, e);
+        }
+    }
+
     /**
      * 包装异常
      *
@@ -391,6 +1330,9 @@ public abstract class AbstractService<T extends BaseEntity<ID>, ID extends Seria
      * @return 包装后的异常
      */
     protected RuntimeException wrapException(String operation, Exception e) {
+        if (e instanceof OptimisticLockingFailureException || e instanceof OptimisticLockException) {
+            return new ConflictException("数据已被其他人修改，请刷新后重试", e);
+        }
         if (e instanceof DataIntegrityViolationException) {
             return new BusinessException("数据约束冲突: " + e.getMessage(), e);
         }
@@ -1,9 +1,13 @@
 package com.example.service.base;
 
+import com.example.common.CursorSlice;
 import com.example.domain.base.BaseEntity;
+import jakarta.annotation.Nullable;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
@@ -11,6 +15,7 @@ import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import java.io.Serializable;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 /**
  * 支持 JPA Specification 查询的抽象服务类。
@@ -19,6 +24,10 @@ import java.util.Optional;
  * 允许进行动态条件查询。要使用此类，Repository 必须同时实现 {@link JpaRepository}
  * 和 {@link JpaSpecificationExecutor} 接口。
  *
+ * <p>查询条件使用 {@link Condition} 时，{@link #findByCondition(Specification, Pageable)}、
+ * {@link #findAll(Specification)} 和 {@link #countByCondition(Specification)} 会复用按条件结构缓存的编译结果，
+ * 频繁执行的动态筛选应优先使用 {@link Condition}。
+ *
  * <p>使用示例：
  * <pre>{@code
  * @Service
@@ -94,8 +103,78 @@ public abstract class AbstractSpecificationService<T extends BaseEntity<ID>, ID
      * @throws IllegalArgumentException 如果 pageable 为 null
      */
     public Page<T> findByCondition(Specification<T> spec, Pageable pageable) {
-        log.debug("正在使用条件查询 - {}, spec: {}, pageable: {}", getEntityName(), spec, pageable);
-        return specificationExecutor.findAll(spec, pageable);
+        if (spec instanceof Condition<T>) {
+            return measure("findByCondition", () -> (Page<T>) findPage(spec, pageable, CountMode.EXACT, ""));
+        }
+        return measure("findByCondition", () -> specificationExecutor.findAll(spec, pageable));
+    }
+
+    /**
+     * 使用条件查询并分页获取实体列表，并指定总数的统计方式。
+     *
+     * @param spec      查询条件，可以为 null
+     * @param pageable  分页参数，不能为 null
+     * @param countMode 总数统计方式，{@link CountMode#NONE} 时返回不含总数的 {@link Slice}
+     * @param countKey  标识查询条件的缓存键，相同条件必须使用相同的键，如 {@code "status:active"}
+     * @return 分页结果
+     */
+    public Slice<T> findByCondition(Specification<T> spec, Pageable pageable, CountMode countMode, String countKey) {
+        return measure("findByCondition", () -> findPage(spec, pageable, countMode, countKey));
+    }
+
+    /**
+     * 使用条件分页查询投影，只查询投影需要的列，结果不经过持久化上下文。
+     *
+     * @param spec       查询条件，可以为 null
+     * @param projection 投影类型，record（组件名与实体属性名一致）或 closed 接口投影
+     * @param pageable   分页参数，不能为 null
+     * @return 分页后的投影列表
+     * @see #findAll(Class, Pageable, CountMode)
+     */
+    public <P> Page<P> findAll(Specification<T> spec, Class<P> projection, Pageable pageable) {
+        return measure("findByConditionProjection", () -> (Page<P>) findPage(spec, projection, pageable, CountMode.EXACT, ""));
+    }
+
+    /**
+     * 使用条件分页查询投影，并指定总数的统计方式。
+     *
+     * @param spec       查询条件，可以为 null
+     * @param projection 投影类型，record 或 closed 接口投影
+     * @param pageable   分页参数，不能为 null
+     * @param countMode  总数统计方式，{@link CountMode#NONE} 时返回不含总数的 {@link Slice}
+     * @param countKey   标识查询条件的缓存键，相同条件必须使用相同的键
+     * @return 分页结果
+     */
+    public <P> Slice<P> findByCondition(Specification<T> spec, Class<P> projection, Pageable pageable,
+                                        CountMode countMode, String countKey) {
+        return measure("findByConditionProjection", () -> findPage(spec, projection, pageable, countMode, countKey));
+    }
+
+    /**
+     * 使用条件进行游标（keyset）分页查询。
+     *
+     * @param spec   查询条件，可以为 null
+     * @param cursor 上一页返回的游标，查询第一页时为 null
+     * @param size   每页大小
+     * @param sort   排序规则，排序字段须为非空列，末尾会自动追加 id
+     * @return 当前页数据及下一页游标
+     * @see #findAllByCursor(String, int, Sort)
+     */
+    public CursorSlice<T> findByCondition(Specification<T> spec, @Nullable String cursor, int size, Sort sort) {
+        return measure("findByConditionCursor", () -> findByCursor(spec, cursor, size, sort));
+    }
+
+    /**
+     * 流式遍历符合条件的实体，内存占用与结果行数无关。
+     *
+     * @param spec   查询条件，可以为 null
+     * @param sort   排序规则
+     * @param action 对每个实体执行的操作
+     * @return 处理的实体数量
+     * @see #forEach(Sort, Consumer)
+     */
+    public long forEach(Specification<T> spec, Sort sort, Consumer<? super T> action) {
+        return super.forEach(spec, sort, action);
     }
 
     /**
@@ -105,8 +184,7 @@ public abstract class AbstractSpecificationService<T extends BaseEntity<ID>, ID
      * @return 符合条件的实体数量
      */
     public long countByCondition(Specification<T> spec) {
-        log.debug("正在根据条件统计实体数量 - {}, spec: {}", getEntityName(), spec);
-        return specificationExecutor.count(spec);
+        return measure("countByCondition", () -> countBy(spec));
     }
 
     /**
@@ -117,8 +195,7 @@ public abstract class AbstractSpecificationService<T extends BaseEntity<ID>, ID
      * @throws IllegalArgumentException 如果 spec 为 null
      */
     public Optional<T> findOne(Specification<T> spec) {
-        log.debug("正在使用条件查询单个实体 - {}, spec: {}", getEntityName(), spec);
-        return specificationExecutor.findOne(spec);
+        return measure("findOne", () -> specificationExecutor.findOne(spec));
     }
 
     /**
@@ -128,7 +205,6 @@ public abstract class AbstractSpecificationService<T extends BaseEntity<ID>, ID
      * @return 符合条件的实体列表
      */
     public List<T> findAll(Specification<T> spec) {
-        log.debug("正在使用条件查询所有实体 - {}, spec: {}", getEntityName(), spec);
-        return specificationExecutor.findAll(spec);
+        return measure("findAll", () -> findList(spec, Sort.unsorted()));
     }
 }
\ No newline at end of file
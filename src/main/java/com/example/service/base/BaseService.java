@@ -1,16 +1,23 @@
 package com.example.service.base;
 
+import com.example.common.CursorSlice;
 import com.example.domain.base.BaseEntity;
+import jakarta.annotation.Nullable;
 import jakarta.persistence.EntityNotFoundException;
 import org.springframework.data.domain.ExampleMatcher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.io.Serializable;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * 服务基类。
@@ -87,6 +94,32 @@ public interface BaseService<T extends BaseEntity<ID>, ID extends Serializable>
      */
     List<T> findAll(Sort sort);
 
+    /**
+     * 流式遍历所有实体，不会一次性将整张表加载到内存。
+     * <p>
+     * 适用于报表、导出等需要处理全表数据的场景，每个实体处理完后即从持久化上下文中分离，内存占用恒定。
+     *
+     * <pre>
+     * long count = service.forEach(Sort.by("id"), user -&gt; writer.write(user));
+     * </pre>
+     *
+     * @param sort   排序参数
+     * @param action 对每个实体执行的操作
+     * @return 处理的实体数量
+     */
+    long forEach(Sort sort, Consumer<? super T> action);
+
+    /**
+     * 打开一个遍历所有实体的流，数据按 fetch size 分批从数据库拉取。
+     * <p>
+     * 注意：返回的流必须在调用方的事务内消费（没有事务时直接抛出异常），并在使用后关闭（推荐 try-with-resources），
+     * 否则数据库连接和游标不会被释放。不需要自行管理事务时，优先使用 {@link #forEach(Sort, Consumer)}。
+     *
+     * @param sort 排序参数
+     * @return 实体流
+     */
+    Stream<T> streamAll(Sort sort);
+
     /**
      * 分页查找所有实体对象。
      *
@@ -95,6 +128,48 @@ public interface BaseService<T extends BaseEntity<ID>, ID extends Serializable>
      */
     Page<T> findAll(Pageable pageable);
 
+    /**
+     * 分页查找所有实体对象，并指定总数的统计方式。
+     * <p>
+     * 大表上 COUNT 查询往往比分页查询更慢，不需要精确总数的场景可以选择缓存、估算或不统计。
+     *
+     * @param pageable  分页信息
+     * @param countMode 总数统计方式，{@link CountMode#NONE} 时返回不含总数的 {@link Slice}
+     * @return 分页结果
+     */
+    Slice<T> findAll(Pageable pageable, CountMode countMode);
+
+    /**
+     * 分页查询所有实体，只查询投影需要的列。
+     * <p>
+     * 投影可以是 record（组件名与实体属性名一致）或只包含 getter 的接口（closed projection）。
+     * 查询结果是标量值，不经过持久化上下文，适合列表接口：减少传输的列、省去实体装配和脏检查。
+     *
+     * @param projection 投影类型
+     * @param pageable   分页信息，排序字段为实体属性
+     * @param countMode  总数统计方式，{@link CountMode#NONE} 时返回不含总数的 {@link Slice}
+     * @return 分页结果
+     */
+    <P> Slice<P> findAll(Class<P> projection, Pageable pageable, CountMode countMode);
+
+    /**
+     * 游标（keyset）分页查找实体对象。
+     * <p>
+     * 与 {@link #findAll(Pageable)} 相比，不使用 OFFSET，也不统计总数，翻页深度不影响查询开销，
+     * 适合数据量大、只需要“下一页”的列表场景。
+     *
+     * <pre>
+     * CursorSlice&lt;User&gt; first = service.findAllByCursor(null, 20, Sort.by("createdAt").descending());
+     * CursorSlice&lt;User&gt; second = service.findAllByCursor(first.nextCursor(), 20, Sort.by("createdAt").descending());
+     * </pre>
+     *
+     * @param cursor 上一页返回的游标，查询第一页时为 null
+     * @param size   每页大小
+     * @param sort   排序规则，排序字段须为非空列，末尾会自动追加 id
+     * @return 当前页数据及下一页游标
+     */
+    CursorSlice<T> findAllByCursor(@Nullable String cursor, int size, Sort sort);
+
     /**
      * 根据示例对象查询实体对象列表
      *
@@ -114,6 +189,18 @@ public interface BaseService<T extends BaseEntity<ID>, ID extends Serializable>
 
     Page<T> findAllByExample(T example, Pageable pageable);
 
+    /**
+     * 根据示例对象进行游标（keyset）分页查询
+     *
+     * @param example 示例对象
+     * @param cursor  上一页返回的游标，查询第一页时为 null
+     * @param size    每页大小
+     * @param sort    排序规则，排序字段须为非空列，末尾会自动追加 id
+     * @return 当前页数据及下一页游标
+     * @see #findAllByCursor(String, int, Sort)
+     */
+    CursorSlice<T> findAllByExample(T example, @Nullable String cursor, int size, Sort sort);
+
     /**
      * 使用自定义的 ExampleMatcher 根据示例对象查询并排序
      *
@@ -161,6 +248,60 @@ public interface BaseService<T extends BaseEntity<ID>, ID extends Serializable>
     @Transactional
     List<T> saveAll(Iterable<T> entities);
 
+    /**
+     * 部分更新实体对象。
+     * <p>
+     * 在当前事务中加载实体并应用修改后立即刷新：只写入实际发生变化的列（实体需标注
+     * {@code @DynamicUpdate}），未发生变化时不执行 UPDATE；UPDATE 以版本号为条件，
+     * 读取后被其他事务修改时抛出 {@link com.example.common.exception.ConflictException}，不加悲观锁。
+     *
+     * @param id              实体 ID
+     * @param expectedVersion 客户端读取时的版本号，与当前版本不一致时直接判定为冲突；为 null 时不比较
+     * @param changes         对实体的修改
+     * @return 更新后的实体对象
+     * @throws EntityNotFoundException 如果实体不存在
+     */
+    @Transactional
+    T patch(ID id, @Nullable Long expectedVersion, Consumer<? super T> changes);
+
+    /**
+     * 部分更新实体对象，把 {@code changes} 中值不为 null 的属性复制到实体的同名属性上（主键和版本号除外）。
+     *
+     * @param id              实体 ID
+     * @param expectedVersion 客户端读取时的版本号，为 null 时不比较
+     * @param changes         修改内容，通常是请求 DTO
+     * @return 更新后的实体对象
+     * @see #patch(Serializable, Long, Consumer)
+     */
+    @Transactional
+    T patch(ID id, @Nullable Long expectedVersion, Object changes);
+
+    /**
+     * 批量插入实体对象，使用默认的分块大小。
+     *
+     * @param entities 要插入的实体对象
+     * @return 按输入顺序排列的生成 ID
+     * @see #bulkInsert(Collection, int)
+     */
+    @Transactional
+    List<ID> bulkInsert(Collection<T> entities);
+
+    /**
+     * 批量插入实体对象。
+     * <p>
+     * IDENTITY 主键会让 Hibernate 关闭 JDBC 批量插入，{@link #saveAll} 只能逐行发送 INSERT。
+     * 此方法绕过持久化上下文，直接通过 JDBC 按块执行批量 INSERT（MySQL 在 {@code rewriteBatchedStatements=true}
+     * 时会改写为多行 INSERT），并将生成的 ID 回填到实体上。使用 Snowflake 主键时 ID 在插入前生成。
+     * <p>
+     * 注意：插入后的实体不受持久化上下文管理，也不会触发实体监听器（审计时间除外，会在插入前填充）。
+     *
+     * @param entities  要插入的实体对象
+     * @param chunkSize 每次 executeBatch 的行数
+     * @return 按输入顺序排列的生成 ID
+     */
+    @Transactional
+    List<ID> bulkInsert(Collection<T> entities, int chunkSize);
+
     /**
      * 根据 ID 删除实体对象。
      * 该方法在事务中执行，确保数据的一致性。
@@ -186,6 +327,32 @@ public interface BaseService<T extends BaseEntity<ID>, ID extends Serializable>
     @Transactional
     void deleteAll(Iterable<? extends T> entities);
 
+    /**
+     * 按 ID 批量删除实体对象，使用默认的分块大小。
+     *
+     * @param ids 要删除的实体 ID
+     * @return 实际删除的行数
+     * @see #bulkDeleteById(Collection, int)
+     */
+    @Transactional
+    int bulkDeleteById(Collection<ID> ids);
+
+    /**
+     * 按 ID 批量删除实体对象。
+     * <p>
+     * 不加载实体，按块直接执行一条语句：{@link com.example.domain.base.SoftDeletableEntity} 的子类执行
+     * {@code UPDATE ... SET deleted = true, deleted_at = ?, deleted_by = ? WHERE id IN (...)}（已删除的不计入），
+     * 其他实体执行 {@code DELETE ... WHERE id IN (...)}。完成后批量清理对应的缓存。
+     * <p>
+     * 注意：不会触发实体监听器和级联删除，持久化上下文中已加载的实体也不会同步更新。
+     *
+     * @param ids       要删除的实体 ID
+     * @param chunkSize 每条语句包含的 ID 数量
+     * @return 实际删除的行数
+     */
+    @Transactional
+    int bulkDeleteById(Collection<ID> ids, int chunkSize);
+
     /**
      * 检查实体是否存在
      */
@@ -196,4 +363,49 @@ public interface BaseService<T extends BaseEntity<ID>, ID extends Serializable>
      */
     long count();
 
+    // === 异步查询 ===
+    // 以下方法在 AsyncQueryExecutor 上执行，各自开启只读事务、占用独立的数据库连接，用于在一个请求内并行执行
+    // 互不依赖的查询。查询不参与调用方的事务，看不到调用方尚未提交的修改；排队已满时直接抛出 TooManyRequestsException，
+    // 超时的 future 以 TimeoutException 结束。
+
+    /**
+     * {@link #findById(Serializable)} 的异步版本
+     */
+    CompletableFuture<Optional<T>> findByIdAsync(ID id);
+
+    /**
+     * {@link #findAllById(Iterable)} 的异步版本
+     */
+    CompletableFuture<List<T>> findAllByIdAsync(Iterable<ID> ids);
+
+    /**
+     * {@link #findAll(Sort)} 的异步版本
+     */
+    CompletableFuture<List<T>> findAllAsync(Sort sort);
+
+    /**
+     * {@link #findAll(Pageable)} 的异步版本
+     */
+    CompletableFuture<Page<T>> findAllAsync(Pageable pageable);
+
+    /**
+     * {@link #findAll(Pageable, CountMode)} 的异步版本
+     */
+    CompletableFuture<Slice<T>> findAllAsync(Pageable pageable, CountMode countMode);
+
+    /**
+     * {@link #findAll(Class, Pageable, CountMode)} 的异步版本
+     */
+    <P> CompletableFuture<Slice<P>> findAllAsync(Class<P> projection, Pageable pageable, CountMode countMode);
+
+    /**
+     * {@link #exists(Serializable)} 的异步版本
+     */
+    CompletableFuture<Boolean> existsAsync(ID id);
+
+    /**
+     * {@link #count()} 的异步版本
+     */
+    CompletableFuture<Long> countAsync();
+
 }
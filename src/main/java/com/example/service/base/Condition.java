@@ -0,0 +1,333 @@
+package com.example.service.base;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.regex.Pattern;
+
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.util.Assert;
+
+import jakarta.annotation.Nullable;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+/**
+ * 结构化的查询条件，可以在任何接受 {@link Specification} 的地方使用。
+ * <p>
+ * 与普通 lambda 形式的 Specification 不同，条件的结构（字段、运算符、组合方式）和参数值是分开保存的：
+ * {@link AbstractService} 的分页、列表和计数查询会按结构指纹把条件编译为带位置参数的 JPQL 并缓存
+ * （见 {@link CompiledQueryCache}），之后结构相同的条件只需绑定新的参数值，不再构建 Criteria 树，
+ * Hibernate 也会复用已解析的查询计划。其他场景（游标分页、流式遍历等）按普通 Specification 处理。
+ * <p>
+ * 值为 {@code null} 的比较条件会被忽略，便于组合可选的筛选条件：
+ * <pre>{@code
+ * Condition<User> condition = Condition.and(
+ *         Condition.contains("username", keyword),
+ *         Condition.eq("roles", role),
+ *         Condition.ge("createdAt", createdAfter));
+ * }</pre>
+ *
+ * @param <T> 实体类型
+ */
+public abstract sealed class Condition<T> implements Specification<T> {
+
+    /**
+     * 属性路径只允许字母、数字、下划线和点，属性名会直接写入 JPQL
+     */
+    private static final Pattern PROPERTY_PATH = Pattern.compile("[A-Za-z_][A-Za-z0-9_]*(\\.[A-Za-z_][A-Za-z0-9_]*)*");
+
+    private static final char LIKE_ESCAPE = '\\';
+
+    private Condition() {
+    }
+
+    /**
+     * 结构指纹，只描述条件的结构，不包含参数值
+     */
+    public final String fingerprint() {
+        StringBuilder shape = new StringBuilder();
+        appendShape(shape);
+        return shape.toString();
+    }
+
+    /**
+     * 是否不包含任何限制
+     */
+    boolean isEmpty() {
+        return false;
+    }
+
+    abstract void appendShape(StringBuilder shape);
+
+    /**
+     * 输出 JPQL 条件，参数使用从 {@code nextParameter[0]} 开始编号的位置参数
+     */
+    abstract void appendJpql(StringBuilder jpql, String alias, int[] nextParameter);
+
+    /**
+     * 按 {@link #appendJpql} 输出的参数顺序收集参数值
+     */
+    abstract void collectValues(List<Object> values);
+
+    // ---------------------------------------------------------------- 工厂方法
+
+    /**
+     * 不包含任何限制的条件
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> Condition<T> all() {
+        return (Condition<T>) All.INSTANCE;
+    }
+
+    public static <T> Condition<T> eq(String property, @Nullable Object value) {
+        return compare(property, Operator.EQ, value);
+    }
+
+    public static <T> Condition<T> ne(String property, @Nullable Object value) {
+        return compare(property, Operator.NE, value);
+    }
+
+    public static <T> Condition<T> gt(String property, @Nullable Comparable<?> value) {
+        return compare(property, Operator.GT, value);
+    }
+
+    public static <T> Condition<T> ge(String property, @Nullable Comparable<?> value) {
+        return compare(property, Operator.GE, value);
+    }
+
+    public static <T> Condition<T> lt(String property, @Nullable Comparable<?> value) {
+        return compare(property, Operator.LT, value);
+    }
+
+    public static <T> Condition<T> le(String property, @Nullable Comparable<?> value) {
+        return compare(property, Operator.LE, value);
+    }
+
+    /**
+     * 包含指定关键词（不区分大小写），关键词为空白时忽略
+     */
+    public static <T> Condition<T> contains(String property, @Nullable String keyword) {
+        if (keyword == null || keyword.isBlank()) {
+            return all();
+        }
+        String escaped = keyword.toLowerCase(Locale.ROOT)
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+        return compare(property, Operator.CONTAINS, "%" + escaped + "%");
+    }
+
+    /**
+     * 属性值在指定集合中，集合为 null 时忽略
+     */
+    public static <T> Condition<T> in(String property, @Nullable Collection<?> values) {
+        return compare(property, Operator.IN, values);
+    }
+
+    public static <T> Condition<T> isNull(String property) {
+        return new Comparison<>(property, Operator.IS_NULL, null);
+    }
+
+    public static <T> Condition<T> isNotNull(String property) {
+        return new Comparison<>(property, Operator.IS_NOT_NULL, null);
+    }
+
+    @SafeVarargs
+    public static <T> Condition<T> and(Condition<T>... conditions) {
+        return junction(Junction.AND, conditions);
+    }
+
+    @SafeVarargs
+    public static <T> Condition<T> or(Condition<T>... conditions) {
+        return junction(Junction.OR, conditions);
+    }
+
+    private static <T> Condition<T> compare(String property, Operator operator, @Nullable Object value) {
+        return value == null ? all() : new Comparison<>(property, operator, value);
+    }
+
+    @SafeVarargs
+    private static <T> Condition<T> junction(String operator, Condition<T>... conditions) {
+        List<Condition<T>> parts = Arrays.stream(conditions)
+                .filter(Objects::nonNull)
+                .filter(condition -> !condition.isEmpty())
+                .toList();
+        if (parts.isEmpty()) {
+            return all();
+        }
+        return parts.size() == 1 ? parts.get(0) : new Junction<>(operator, parts);
+    }
+
+    private static <Y> Path<Y> path(Root<?> root, String property) {
+        Path<?> path = root;
+        for (String part : property.split("\\.")) {
+            path = path.get(part);
+        }
+        @SuppressWarnings("unchecked")
+        Path<Y> typed = (Path<Y>) path;
+        return typed;
+    }
+
+    static void checkProperty(String property) {
+        Assert.isTrue(property != null && PROPERTY_PATH.matcher(property).matches(),
+                () -> "Invalid property path: " + property);
+    }
+
+    // ---------------------------------------------------------------- 条件节点
+
+    private enum Operator {
+        EQ("="), NE("<>"), GT(">"), GE(">="), LT("<"), LE("<="), CONTAINS("like"), IN("in"), IS_NULL("is null"),
+        IS_NOT_NULL("is not null");
+
+        private final String jpql;
+
+        Operator(String jpql) {
+            this.jpql = jpql;
+        }
+    }
+
+    private static final class All<T> extends Condition<T> {
+
+        private static final All<?> INSTANCE = new All<>();
+
+        @Override
+        boolean isEmpty() {
+            return true;
+        }
+
+        @Override
+        void appendShape(StringBuilder shape) {
+            shape.append("all");
+        }
+
+        @Override
+        void appendJpql(StringBuilder jpql, String alias, int[] nextParameter) {
+            jpql.append("1 = 1");
+        }
+
+        @Override
+        void collectValues(List<Object> values) {
+        }
+
+        @Override
+        public Predicate toPredicate(Root<T> root, CriteriaQuery<?> query, CriteriaBuilder cb) {
+            return null;
+        }
+    }
+
+    private static final class Comparison<T> extends Condition<T> {
+
+        private final String property;
+        private final Operator operator;
+        @Nullable
+        private final Object value;
+
+        private Comparison(String property, Operator operator, @Nullable Object value) {
+            checkProperty(property);
+            this.property = property;
+            this.operator = operator;
+            this.value = value;
+        }
+
+        @Override
+        void appendShape(StringBuilder shape) {
+            shape.append(property).append(' ').append(operator.name());
+        }
+
+        @Override
+        void appendJpql(StringBuilder jpql, String alias, int[] nextParameter) {
+            switch (operator) {
+                case IS_NULL, IS_NOT_NULL -> jpql.append(alias).append('.').append(property).append(' ').append(operator.jpql);
+                case CONTAINS -> jpql.append("lower(").append(alias).append('.').append(property).append(") like ?")
+                        .append(nextParameter[0]++).append(" escape '").append(LIKE_ESCAPE).append('\'');
+                case IN -> jpql.append(alias).append('.').append(property).append(" in (?").append(nextParameter[0]++).append(')');
+                default -> jpql.append(alias).append('.').append(property).append(' ').append(operator.jpql)
+                        .append(" ?").append(nextParameter[0]++);
+            }
+        }
+
+        @Override
+        void collectValues(List<Object> values) {
+            if (value != null) {
+                values.add(value);
+            }
+        }
+
+        @Override
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        public Predicate toPredicate(Root<T> root, CriteriaQuery<?> query, CriteriaBuilder cb) {
+            Path path = path(root, property);
+            return switch (operator) {
+                case EQ -> cb.equal(path, value);
+                case NE -> cb.notEqual(path, value);
+                case GT -> cb.greaterThan((Expression<Comparable>) path, (Comparable) value);
+                case GE -> cb.greaterThanOrEqualTo((Expression<Comparable>) path, (Comparable) value);
+                case LT -> cb.lessThan((Expression<Comparable>) path, (Comparable) value);
+                case LE -> cb.lessThanOrEqualTo((Expression<Comparable>) path, (Comparable) value);
+                case CONTAINS -> cb.like(cb.lower(path.as(String.class)), (String) value, LIKE_ESCAPE);
+                case IN -> path.in((Collection<?>) value);
+                case IS_NULL -> cb.isNull(path);
+                case IS_NOT_NULL -> cb.isNotNull(path);
+            };
+        }
+    }
+
+    private static final class Junction<T> extends Condition<T> {
+
+        private static final String AND = "and";
+        private static final String OR = "or";
+
+        private final String operator;
+        private final List<Condition<T>> parts;
+
+        private Junction(String operator, List<Condition<T>> parts) {
+            this.operator = operator;
+            this.parts = parts;
+        }
+
+        @Override
+        void appendShape(StringBuilder shape) {
+            shape.append(operator).append('(');
+            for (int i = 0; i < parts.size(); i++) {
+                if (i > 0) {
+                    shape.append(',');
+                }
+                parts.get(i).appendShape(shape);
+            }
+            shape.append(')');
+        }
+
+        @Override
+        void appendJpql(StringBuilder jpql, String alias, int[] nextParameter) {
+            jpql.append('(');
+            for (int i = 0; i < parts.size(); i++) {
+                if (i > 0) {
+                    jpql.append(' ').append(operator).append(' ');
+                }
+                parts.get(i).appendJpql(jpql, alias, nextParameter);
+            }
+            jpql.append(')');
+        }
+
+        @Override
+        void collectValues(List<Object> values) {
+            parts.forEach(part -> part.collectValues(values));
+        }
+
+        @Override
+        public Predicate toPredicate(Root<T> root, CriteriaQuery<?> query, CriteriaBuilder cb) {
+            List<Predicate> predicates = new ArrayList<>(parts.size());
+            parts.forEach(part -> predicates.add(part.toPredicate(root, query, cb)));
+            Predicate[] array = predicates.toArray(Predicate[]::new);
+            return AND.equals(operator) ? cb.and(array) : cb.or(array);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.service.base;
+
+/**
+ * 分页查询统计总数的方式。
+ * <p>
+ * 在大表上 {@code SELECT COUNT(*)} 往往比分页查询本身还慢，因此由调用方根据场景选择：
+ * <ul>
+ * <li>{@link #EXACT} - 每次执行 COUNT 查询，结果精确，开销最大</li>
+ * <li>{@link #CACHED} - COUNT 结果在短时间内缓存复用，可能有短暂延迟</li>
+ * <li>{@link #APPROXIMATE} - 无条件查询时使用数据库统计信息估算，有条件时退化为 {@link #CACHED}</li>
+ * <li>{@link #NONE} - 不统计总数，多取一行判断是否有下一页，返回 {@link org.springframework.data.domain.Slice}</li>
+ * </ul>
+ */
+public enum CountMode {
+    EXACT,
+    CACHED,
+    APPROXIMATE,
+    NONE
+}
@@ -0,0 +1,67 @@
+package com.example.service.base;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+
+import com.example.common.exception.BusinessException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+/**
+ * 游标分页使用的不透明游标。
+ * <p>
+ * 游标记录上一页最后一行的排序键（排序字段值 + id），以 Base64URL 编码的 JSON 形式交给客户端，
+ * 客户端只需原样回传，不需要也不应该解析其内容。游标中同时记录了生成它时的排序规则，
+ * 排序规则变化后旧游标会被拒绝，避免返回错乱的数据。
+ *
+ * @param sort   生成游标时的排序规则，如 {@code createdAt:DESC,id:DESC}
+ * @param values 最后一行的排序键，顺序与排序规则一致
+ */
+record KeysetCursor(String sort, List<Object> values) {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    /**
+     * 编码为不透明字符串
+     */
+    String encode() {
+        try {
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(OBJECT_MAPPER.writeValueAsBytes(this));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to encode cursor", e);
+        }
+    }
+
+    /**
+     * 解码客户端回传的游标
+     *
+     * @param cursor       游标字符串
+     * @param expectedSort 当前查询的排序规则
+     * @throws BusinessException 如果游标格式错误或与当前排序规则不一致
+     */
+    static KeysetCursor decode(String cursor, String expectedSort) {
+        KeysetCursor decoded;
+        try {
+            decoded = OBJECT_MAPPER.readValue(Base64.getUrlDecoder().decode(cursor.getBytes(StandardCharsets.US_ASCII)),
+                    KeysetCursor.class);
+        } catch (Exception e) {
+            throw BusinessException.invalidParameter("cursor");
+        }
+        if (!expectedSort.equals(decoded.sort()) || decoded.values() == null) {
+            throw BusinessException.invalidParameter("cursor");
+        }
+        return decoded;
+    }
+
+    /**
+     * 将游标中反序列化出的 JSON 值转换为排序字段的实际类型
+     */
+    static Object convert(Object value, Class<?> javaType) {
+        return value == null ? null : OBJECT_MAPPER.convertValue(value, javaType);
+    }
+}
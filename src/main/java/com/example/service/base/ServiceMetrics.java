@@ -0,0 +1,140 @@
+package com.example.service.base;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Component;
+
+import com.example.common.CursorSlice;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.Nullable;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * {@link AbstractService} 通用操作的指标，取代逐次操作的 INFO/DEBUG 日志。
+ * <p>
+ * 每次操作只记录耗时和涉及的实体数，不格式化任何参数，也不会调用实体的 {@code toString}：
+ * <ul>
+ * <li>{@code service.operation} - 操作耗时，按 entity、operation、outcome（success/error）区分</li>
+ * <li>{@code service.rows} - 操作返回或影响的实体数，按 entity、operation 区分</li>
+ * </ul>
+ * 另外按 {@code log-sample-rate} 采样输出一行结构化的 DEBUG 日志，只包含实体名、操作名、结果、实体数和耗时。
+ */
+@Slf4j
+@Component
+public class ServiceMetrics {
+
+    private final MeterRegistry meterRegistry;
+    private final double logSampleRate;
+    /**
+     * 实体名 -> 操作名 -> 指标，两级查找避免每次拼接键
+     */
+    private final Map<String, Map<String, Meters>> meters = new ConcurrentHashMap<>();
+
+    public ServiceMetrics(MeterRegistry meterRegistry,
+                          @Value("${app.service-metrics.log-sample-rate:0.01}") double logSampleRate) {
+        this.meterRegistry = meterRegistry;
+        this.logSampleRate = logSampleRate;
+        log.debug("Service metrics initialized, logSampleRate: {}", logSampleRate);
+    }
+
+    /**
+     * 记录一次成功的操作
+     *
+     * @param entity     实体名
+     * @param operation  操作名，如 save、findById
+     * @param startNanos 操作开始时的 {@link System#nanoTime()}
+     * @param rows       返回或影响的实体数
+     */
+    public void success(String entity, String operation, long startNanos, long rows) {
+        long elapsed = System.nanoTime() - startNanos;
+        Meters m = meters(entity, operation);
+        m.success.record(elapsed, TimeUnit.NANOSECONDS);
+        if (rows > 0) {
+            m.rows.increment(rows);
+        }
+        sampleLog(entity, operation, "success", rows, elapsed);
+    }
+
+    /**
+     * 记录一次失败的操作，异常本身由调用方处理
+     */
+    public void failure(String entity, String operation, long startNanos, Throwable e) {
+        long elapsed = System.nanoTime() - startNanos;
+        meters(entity, operation).error.record(elapsed, TimeUnit.NANOSECONDS);
+        sampleLog(entity, operation, e.getClass().getSimpleName(), 0, elapsed);
+    }
+
+    /**
+     * 从操作结果推算实体数：Optional、集合、分页结果按元素数计，Integer 视为影响的行数；
+     * Boolean（exists）和 Long（count 的统计值）不是返回的实体，计为 0；其他非 null 结果计为 1
+     */
+    static long rowsOf(@Nullable Object result) {
+        if (result == null || result instanceof Boolean || result instanceof Long) {
+            return 0;
+        }
+        if (result instanceof Optional<?> optional) {
+            return optional.isPresent() ? 1 : 0;
+        }
+        if (result instanceof Collection<?> collection) {
+            return collection.size();
+        }
+        if (result instanceof Slice<?> slice) {
+            return slice.getNumberOfElements();
+        }
+        if (result instanceof CursorSlice<?> slice) {
+            return slice.content().size();
+        }
+        if (result instanceof Integer affected) {
+            return affected;
+        }
+        return 1;
+    }
+
+    private void sampleLog(String entity, String operation, String outcome, long rows, long elapsedNanos) {
+        if (log.isDebugEnabled() && ThreadLocalRandom.current().nextDouble() < logSampleRate) {
+            log.debug("service operation entity={} operation={} outcome={} rows={} elapsedMicros={}",
+                    entity, operation, outcome, rows, TimeUnit.NANOSECONDS.toMicros(elapsedNanos));
+        }
+    }
+
+    private Meters meters(String entity, String operation) {
+        return meters.computeIfAbsent(entity, k -> new ConcurrentHashMap<>())
+                .computeIfAbsent(operation, k -> new Meters(entity, operation));
+    }
+
+    private final class Meters {
+
+        private final Timer success;
+        private final Timer error;
+        private final Counter rows;
+
+        private Meters(String entity, String operation) {
+            this.success = timer(entity, operation, "success");
+            this.error = timer(entity, operation, "error");
+            this.rows = Counter.builder("service.rows")
+                    .description("Service 操作返回或影响的实体数")
+                    .tag("entity", entity)
+                    .tag("operation", operation)
+                    .register(meterRegistry);
+        }
+
+        private Timer timer(String entity, String operation, String outcome) {
+            return Timer.builder("service.operation")
+                    .description("Service 操作耗时")
+                    .tag("entity", entity)
+                    .tag("operation", operation)
+                    .tag("outcome", outcome)
+                    .register(meterRegistry);
+        }
+    }
+}
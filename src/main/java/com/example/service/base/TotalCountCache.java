@@ -0,0 +1,43 @@
+package com.example.service.base;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 分页总数缓存，供 {@link CountMode#CACHED} 和 {@link CountMode#APPROXIMATE} 使用。
+ * <p>
+ * 只缓存在本地且 TTL 很短，数据变更后总数会有最多一个 TTL 的延迟，适合列表页展示这种对总数精度不敏感的场景。
+ */
+@Slf4j
+@Component
+public class TotalCountCache {
+
+    private final Cache<String, Long> cache;
+
+    public TotalCountCache(@Value("${app.pagination.count-cache-ttl:30s}") Duration ttl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(10_000)
+                .expireAfterWrite(ttl)
+                .build();
+        log.debug("Total count cache initialized, ttl: {}", ttl);
+    }
+
+    /**
+     * 获取缓存的总数，不存在时通过 loader 计算并缓存
+     *
+     * @param key    缓存键，应包含实体名称和查询条件
+     * @param loader 总数计算逻辑
+     * @return 总数
+     */
+    public long get(String key, LongSupplier loader) {
+        return cache.get(key, k -> loader.getAsLong());
+    }
+}
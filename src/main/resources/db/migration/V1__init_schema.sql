@@ -0,0 +1,43 @@
+-- 初始表结构，与实体映射保持一致（spring.jpa.hibernate.ddl-auto=validate）
+-- 索引按 Repository 中的派生查询设计，软删除条件 deleted = false 只作用于索引命中后的少量行
+
+CREATE TABLE users
+(
+    id         BIGINT       NOT NULL AUTO_INCREMENT,
+    username   VARCHAR(50)  NOT NULL,
+    email      VARCHAR(100) NOT NULL,
+    password   VARCHAR(255) NOT NULL,
+    avatar     VARCHAR(255),
+    full_name  VARCHAR(255),
+    roles      VARCHAR(255),
+    deleted    BOOLEAN      NOT NULL DEFAULT 0,
+    deleted_at DATETIME,
+    deleted_by VARCHAR(255),
+    created_at DATETIME     NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at DATETIME     NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (id),
+    -- 自然 ID：findByUsername（按自然 ID 加载）、existsByUsername
+    CONSTRAINT uk_users_username UNIQUE (username),
+    -- existsByEmail、findByEmail、findByUsernameOrEmail（与 uk_users_username 做 index merge）
+    INDEX idx_users_email (email)
+) ENGINE = InnoDB
+  DEFAULT CHARSET = utf8mb4;
+
+CREATE TABLE app_config
+(
+    id           BIGINT       NOT NULL AUTO_INCREMENT,
+    config_key   VARCHAR(100) NOT NULL,
+    config_value TEXT,
+    config_group VARCHAR(50)  NOT NULL DEFAULT 'default',
+    value_type   VARCHAR(20)  NOT NULL DEFAULT 'string',
+    description  VARCHAR(255),
+    is_system    BOOLEAN      NOT NULL DEFAULT 0,
+    is_editable  BOOLEAN      NOT NULL DEFAULT 1,
+    PRIMARY KEY (id),
+    -- 自然 ID：findByConfigGroupAndConfigKey、existsByConfigGroupAndConfigKey；
+    -- 以 config_group 开头，同时服务 findByConfigGroup 和按 config_key 排序的 findByConfigGroupOrderByConfigKey
+    CONSTRAINT uk_app_config_group_key UNIQUE (config_group, config_key),
+    -- findByConfigKey
+    INDEX idx_app_config_config_key (config_key)
+) ENGINE = InnoDB
+  DEFAULT CHARSET = utf8mb4;
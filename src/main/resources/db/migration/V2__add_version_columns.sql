@@ -0,0 +1,3 @@
+-- 乐观锁版本号，见 BaseEntity#version
+ALTER TABLE users ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE app_config ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
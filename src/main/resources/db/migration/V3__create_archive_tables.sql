@@ -0,0 +1,24 @@
+-- 软删除数据归档表（SoftDeleteArchiver），列与原表一致并多出 archived_at；原表新增列时需同步添加
+-- 不带唯一约束：同一用户名可能被多次注册、删除后先后归档
+
+CREATE TABLE users_archive
+(
+    id          BIGINT       NOT NULL,
+    username    VARCHAR(50)  NOT NULL,
+    email       VARCHAR(100) NOT NULL,
+    password    VARCHAR(255) NOT NULL,
+    avatar      VARCHAR(255),
+    full_name   VARCHAR(255),
+    roles       VARCHAR(255),
+    deleted     BOOLEAN      NOT NULL DEFAULT 0,
+    deleted_at  DATETIME,
+    deleted_by  VARCHAR(255),
+    created_at  DATETIME     NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at  DATETIME     NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    version     BIGINT       NOT NULL DEFAULT 0,
+    archived_at DATETIME     NOT NULL,
+    PRIMARY KEY (id),
+    -- 按 archive-retention 清除过期归档数据
+    INDEX idx_users_archive_archived_at (archived_at)
+) ENGINE = InnoDB
+  DEFAULT CHARSET = utf8mb4;
@@ -0,0 +1,3 @@
+-- 最近登录时间，由写后队列异步更新；归档表同步添加
+ALTER TABLE users ADD COLUMN last_login_at DATETIME;
+ALTER TABLE users_archive ADD COLUMN last_login_at DATETIME;
@@ -0,0 +1,42 @@
+-- 补建 V1 中的查询索引：已有表结构的库（baseline-on-migrate 基线为版本 1）会跳过 V1，需要在这里创建。
+-- 全新安装时 V1 已建好这些索引，已存在覆盖相同列的索引时跳过，避免重复索引。
+-- 注意：username 存在重复值（含软删除的行）时 uk_users_username 会创建失败，需先人工处理重复数据。
+
+-- 自然 ID：findByUsername（按自然 ID 加载）、existsByUsername
+SET @ddl = (SELECT IF(COUNT(*) = 0, 'ALTER TABLE users ADD CONSTRAINT uk_users_username UNIQUE (username)', 'SELECT 1')
+            FROM information_schema.statistics
+            WHERE table_schema = DATABASE() AND table_name = 'users'
+              AND non_unique = 0 AND column_name = 'username' AND seq_in_index = 1);
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- existsByEmail、findByEmail、findByUsernameOrEmail
+SET @ddl = (SELECT IF(COUNT(*) = 0, 'CREATE INDEX idx_users_email ON users (email)', 'SELECT 1')
+            FROM information_schema.statistics
+            WHERE table_schema = DATABASE() AND table_name = 'users'
+              AND column_name = 'email' AND seq_in_index = 1);
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- 自然 ID：findByConfigGroupAndConfigKey、existsByConfigGroupAndConfigKey、findByConfigGroup
+SET @ddl = (SELECT IF(COUNT(*) = 0, 'ALTER TABLE app_config ADD CONSTRAINT uk_app_config_group_key UNIQUE (config_group, config_key)', 'SELECT 1')
+            FROM information_schema.statistics s1
+                     JOIN information_schema.statistics s2
+                          ON s2.table_schema = s1.table_schema AND s2.table_name = s1.table_name AND s2.index_name = s1.index_name
+            WHERE s1.table_schema = DATABASE() AND s1.table_name = 'app_config' AND s1.non_unique = 0
+              AND s1.column_name = 'config_group' AND s1.seq_in_index = 1
+              AND s2.column_name = 'config_key' AND s2.seq_in_index = 2);
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- findByConfigKey
+SET @ddl = (SELECT IF(COUNT(*) = 0, 'CREATE INDEX idx_app_config_config_key ON app_config (config_key)', 'SELECT 1')
+            FROM information_schema.statistics
+            WHERE table_schema = DATABASE() AND table_name = 'app_config'
+              AND column_name = 'config_key' AND seq_in_index = 1);
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
@@ -0,0 +1,85 @@
+package com.example.common.archive;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+/**
+ * 软删除归档在分块上限下的推进
+ * <p>
+ * 每轮只允许 {@value #MAX_CHUNKS} 个分块，需要归档的行位于多轮之后的主键范围，验证游标跨轮保留、扫描到表尾后从头开始。
+ * 需要本地可用的 Docker，否则跳过。
+ */
+@SpringBootTest(properties = {
+        "app.archive.enabled=true",
+        "app.archive.initial-delay=1h",
+        "app.archive.chunk-size=" + SoftDeleteArchiverTest.CHUNK_SIZE,
+        "app.archive.max-chunks-per-run=" + SoftDeleteArchiverTest.MAX_CHUNKS,
+        "app.archive.pause=0s",
+        "app.archive.entities.User.retention=1h"
+})
+@Testcontainers(disabledWithoutDocker = true)
+class SoftDeleteArchiverTest {
+
+    static final int CHUNK_SIZE = 10;
+    static final int MAX_CHUNKS = 2;
+
+    @Container
+    @ServiceConnection
+    static final MySQLContainer<?> MYSQL = new MySQLContainer<>("mysql:8.4");
+
+    @Container
+    @ServiceConnection(name = "redis")
+    static final GenericContainer<?> REDIS = new GenericContainer<>("redis:7-alpine").withExposedPorts(6379);
+
+    @Autowired
+    private SoftDeleteArchiver archiver;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void resumesFromCursorWhenRunIsCapped() {
+        // 60 行，每轮只扫描 20 个主键，只有最后 20 行需要归档
+        for (int i = 0; i < 60; i++) {
+            jdbcTemplate.update("INSERT INTO users (username, email, password) VALUES (?, ?, ?)",
+                    "archive_" + i, "archive_" + i + "@example.com", "x");
+        }
+        List<Long> ids = jdbcTemplate.queryForList("SELECT id FROM users ORDER BY id", Long.class);
+        softDelete(ids.subList(40, 60));
+
+        archiver.run();
+        archiver.run();
+        assertEquals(0, archivedCount());
+
+        archiver.run();
+        assertEquals(20, archivedCount());
+        assertEquals(40, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users", Long.class));
+
+        // 扫描到表尾后从头开始，之后软删除的前几行在下一遍被归档
+        archiver.run();
+        softDelete(ids.subList(0, 5));
+        archiver.run();
+        assertEquals(25, archivedCount());
+    }
+
+    private void softDelete(List<Long> ids) {
+        ids.forEach(id -> jdbcTemplate.update("UPDATE users SET deleted = TRUE, deleted_at = ? WHERE id = ?",
+                LocalDateTime.now().minusDays(1), id));
+    }
+
+    private long archivedCount() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users_archive", Long.class);
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.common.export;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * {@link StreamingExporter} 的 CSV 输出
+ */
+class StreamingExporterTest {
+
+    private final StreamingExporter exporter = new StreamingExporter(new ObjectMapper());
+
+    private final List<ExportColumn<Row>> columns = List.of(
+            ExportColumn.of("name", Row::name),
+            ExportColumn.of("score", Row::score));
+
+    @Test
+    void neutralizesFormulaCells() throws IOException {
+        String csv = exportCsv(List.of(
+                new Row("=HYPERLINK(\"http://evil\")", 1),
+                new Row("+1", 2),
+                new Row("-2+3", 3),
+                new Row("@SUM(A1)", 4),
+                new Row("\tcmd", 5),
+                new Row("\rcmd", 6)));
+
+        assertEquals("\uFEFFname,score\r\n"
+                + "\"'=HYPERLINK(\"\"http://evil\"\")\",1\r\n"
+                + "'+1,2\r\n"
+                + "'-2+3,3\r\n"
+                + "'@SUM(A1),4\r\n"
+                + "'\tcmd,5\r\n"
+                + "\"'\rcmd\",6\r\n", csv);
+    }
+
+    @Test
+    void keepsPlainCellsAndNumbers() throws IOException {
+        String csv = exportCsv(List.of(
+                new Row("alice", -1),
+                new Row("a,b", 0),
+                new Row("", 7)));
+
+        assertEquals("\uFEFFname,score\r\n"
+                + "alice,-1\r\n"
+                + "\"a,b\",0\r\n"
+                + ",7\r\n", csv);
+    }
+
+    private String exportCsv(List<Row> rows) throws IOException {
+        ResponseEntity<StreamingResponseBody> response = exporter.export("test", ExportFormat.CSV, false, null, columns,
+                action -> rows.forEach(action));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        response.getBody().writeTo(out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    private record Row(String name, Integer score) {
+    }
+}
@@ -0,0 +1,211 @@
+package com.example.common.id;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockingDetails;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+
+/**
+ * {@link SnowflakeIdGenerator} 的时钟回拨处理和节点租约
+ */
+class SnowflakeIdGeneratorTest {
+
+    private static final long NOW = SnowflakeIdGenerator.EPOCH + 1_000_000L;
+
+    private final IdGeneratorProperties properties = new IdGeneratorProperties();
+    private final StringRedisTemplate redis = mock(StringRedisTemplate.class);
+    @SuppressWarnings("unchecked")
+    private final ValueOperations<String, String> valueOps = mock(ValueOperations.class);
+    private final TestClock clock = new TestClock(NOW);
+    private SnowflakeIdGenerator generator;
+
+    @AfterEach
+    void shutdown() {
+        if (generator != null) {
+            generator.shutdown();
+        }
+    }
+
+    @Test
+    void idsIncreaseWithinTheSameMillisecond() {
+        properties.setNodeId(7);
+        generator = new SnowflakeIdGenerator(properties, redis, clock);
+
+        long previous = generator.nextId();
+        for (int i = 1; i < 100; i++) {
+            long id = generator.nextId();
+            assertTrue(id > previous);
+            assertEquals(NOW, SnowflakeIdGenerator.getTimestamp(id).toEpochMilli());
+            assertEquals(7, node(id));
+            assertEquals(i, sequence(id));
+            previous = id;
+        }
+    }
+
+    @Test
+    void waitsForSmallClockBackward() {
+        properties.setNodeId(1);
+        generator = new SnowflakeIdGenerator(properties, redis, clock);
+        long first = generator.nextId();
+
+        // 回拨 5ms（允许 10ms），之后时钟每次读取前进 1ms
+        clock.set(NOW - 5, 1);
+        long second = generator.nextId();
+
+        assertTrue(second > first);
+        assertEquals(NOW, SnowflakeIdGenerator.getTimestamp(second).toEpochMilli());
+        assertEquals(1, sequence(second));
+    }
+
+    @Test
+    void rejectsLargeClockBackward() {
+        properties.setNodeId(1);
+        generator = new SnowflakeIdGenerator(properties, redis, clock);
+        generator.nextId();
+
+        clock.set(NOW - 100, 0);
+
+        assertThrows(IllegalStateException.class, generator::nextId);
+    }
+
+    @Test
+    void rejectsConfiguredNodeIdOutOfRange() {
+        properties.setNodeId(1024);
+        generator = new SnowflakeIdGenerator(properties, redis, clock);
+
+        assertThrows(IllegalStateException.class, generator::nextId);
+    }
+
+    @Test
+    void startsAfterPredecessorLastTimestamp() {
+        stubLease(String.valueOf(NOW + 5), 1L);
+        clock.set(NOW, 1);
+        generator = new SnowflakeIdGenerator(properties, redis, clock);
+
+        long id = generator.nextId();
+
+        assertEquals(NOW + 5, SnowflakeIdGenerator.getTimestamp(id).toEpochMilli());
+        assertEquals(1, sequence(id));
+        assertEquals(leasedNode(), node(id));
+    }
+
+    @Test
+    void renewsLeaseWithLastTimestamp() {
+        properties.setLeaseTtl(Duration.ofMillis(300));
+        stubLease(null, 1L);
+        generator = new SnowflakeIdGenerator(properties, redis, clock);
+
+        generator.nextId();
+
+        String key = "id:snowflake:node:" + leasedNode();
+        verify(redis, timeout(2_000)).execute(ArgumentMatchers.<RedisScript<Long>>any(), eq(List.of(key, key + ":last")),
+                any(), eq("300"), eq(String.valueOf(NOW)));
+    }
+
+    @Test
+    void reacquiresLeaseAfterItIsTaken() throws InterruptedException {
+        properties.setLeaseTtl(Duration.ofMillis(300));
+        stubLease(null, 0L);
+        generator = new SnowflakeIdGenerator(properties, redis, clock);
+        generator.nextId();
+
+        // 续约失败后，下一次生成 ID 时重新抢占节点
+        verify(redis, timeout(2_000)).execute(ArgumentMatchers.<RedisScript<Long>>any(), anyList(), any(), any(), any());
+        for (int i = 0; i < 200 && setIfAbsentCalls() < 2; i++) {
+            generator.nextId();
+            Thread.sleep(10);
+        }
+
+        verify(valueOps, times(2)).setIfAbsent(anyString(), anyString(), any(Duration.class));
+    }
+
+    private void stubLease(String predecessorLastTimestamp, long renewResult) {
+        when(redis.opsForValue()).thenReturn(valueOps);
+        when(valueOps.setIfAbsent(anyString(), anyString(), any(Duration.class))).thenReturn(true);
+        when(valueOps.get(anyString())).thenReturn(predecessorLastTimestamp);
+        when(redis.execute(ArgumentMatchers.<RedisScript<Long>>any(), anyList(), any(), any(), any())).thenReturn(renewResult);
+    }
+
+    private int leasedNode() {
+        ArgumentCaptor<String> key = ArgumentCaptor.forClass(String.class);
+        verify(valueOps).setIfAbsent(key.capture(), anyString(), any(Duration.class));
+        return Integer.parseInt(key.getValue().substring("id:snowflake:node:".length()));
+    }
+
+    private long setIfAbsentCalls() {
+        return mockingDetails(valueOps).getInvocations().stream()
+                .filter(invocation -> invocation.getMethod().getName().equals("setIfAbsent"))
+                .count();
+    }
+
+    private static int node(long id) {
+        return (int) ((id >>> 12) & 1023);
+    }
+
+    private static int sequence(long id) {
+        return (int) (id & 4095);
+    }
+
+    /**
+     * 可手动设置的时钟，每次读取后前进 {@code tick} 毫秒
+     */
+    private static final class TestClock extends Clock {
+
+        private final AtomicLong now;
+        private volatile long tick;
+
+        TestClock(long now) {
+            this.now = new AtomicLong(now);
+        }
+
+        void set(long millis, long tick) {
+            this.tick = tick;
+            now.set(millis);
+        }
+
+        @Override
+        public long millis() {
+            return now.getAndAdd(tick);
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(millis());
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+    }
+}
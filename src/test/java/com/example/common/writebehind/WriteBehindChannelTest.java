@@ -0,0 +1,202 @@
+package com.example.common.writebehind;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.example.common.cache.SecondLevelCacheInvalidator;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * {@link WriteBehindChannel} 的合并、容量占用和失败重试
+ * <p>
+ * 刷新间隔设为 1 小时、批次大小大于容量上限，不会触发后台刷新，所有刷新都由测试显式调用。
+ */
+class WriteBehindChannelTest {
+
+    private static final String CHANNEL = "test.channel";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    /**
+     * 每次成功写入的批次，键 -> 值
+     */
+    private final List<Map<Object, Object>> written = new ArrayList<>();
+    private WriteBehindQueue queue;
+    private WriteBehindChannel<Long, String> channel;
+
+    @AfterEach
+    void shutdown() throws InterruptedException {
+        queue.shutdown();
+    }
+
+    @Test
+    void mergesUpdatesInArrivalOrder() {
+        create(10);
+
+        assertTrue(channel.offer(1L, "a"));
+        assertTrue(channel.offer(1L, "b"));
+        assertTrue(channel.offer(2L, "c"));
+        assertTrue(channel.offer(1L, "d"));
+
+        assertEquals(2, channel.pending());
+        assertEquals(2, queue.flush());
+        assertEquals(Map.of(1L, "a,b,d", 2L, "c"), written.get(0));
+        assertEquals(2, count("write_behind.enqueued"));
+        assertEquals(2, count("write_behind.coalesced"));
+    }
+
+    @Test
+    void splitsFlushIntoBatches() {
+        create(10);
+        for (long key = 1; key <= 5; key++) {
+            channel.offer(key, "v" + key);
+        }
+
+        assertEquals(5, channel.flush(2));
+        assertEquals(3, written.size());
+        assertEquals(0, channel.pending());
+    }
+
+    @Test
+    void dropsNewKeysWhenFullButStillMergesExistingOnes() {
+        create(2);
+
+        assertTrue(channel.offer(1L, "a"));
+        assertTrue(channel.offer(2L, "b"));
+        assertFalse(channel.offer(3L, "c"));
+        assertTrue(channel.offer(1L, "d"));
+
+        assertEquals(2, channel.pending());
+        assertEquals(1, count("write_behind.dropped"));
+    }
+
+    @Test
+    void flushReleasesCapacity() {
+        create(2);
+        channel.offer(1L, "a");
+        channel.offer(2L, "b");
+
+        queue.flush();
+
+        assertTrue(channel.offer(3L, "c"));
+        assertTrue(channel.offer(4L, "d"));
+        assertFalse(channel.offer(5L, "e"));
+    }
+
+    @Test
+    void failedBatchIsRestoredAndRetried() {
+        create(10);
+        failNextWrite(null);
+        channel.offer(1L, "a");
+        channel.offer(2L, "b");
+
+        assertEquals(0, queue.flush());
+        assertEquals(2, channel.pending());
+        assertEquals(2, count("write_behind.failed"));
+
+        assertEquals(2, queue.flush());
+        assertEquals(Map.of(1L, "a", 2L, "b"), written.get(0));
+        assertEquals(0, channel.pending());
+    }
+
+    @Test
+    void restoredValueMergesBeforeUpdatesArrivedDuringWrite() {
+        create(1);
+        channel.offer(1L, "a");
+        // 写入期间同一个键有新的更新，占用了刷新时释放的容量
+        failNextWrite(() -> assertTrue(channel.offer(1L, "b")));
+
+        assertEquals(0, queue.flush());
+        assertEquals(1, channel.pending());
+        // 放回的值与新值合并，不重复占用容量
+        assertFalse(channel.offer(2L, "c"));
+
+        assertEquals(1, queue.flush());
+        assertEquals(Map.of(1L, "a,b"), written.get(0));
+        assertTrue(channel.offer(2L, "c"));
+    }
+
+    @Test
+    void failedValueIsDroppedWhenCapacityIsTakenDuringWrite() {
+        create(1);
+        channel.offer(1L, "a");
+        // 写入期间其他键占满了容量，失败的值无法放回
+        failNextWrite(() -> assertTrue(channel.offer(2L, "b")));
+
+        assertEquals(0, queue.flush());
+
+        assertEquals(1, channel.pending());
+        assertEquals(1, count("write_behind.dropped"));
+        assertEquals(1, queue.flush());
+        assertEquals(Map.of(2L, "b"), written.get(0));
+    }
+
+    @Test
+    void dropsUpdatesAfterShutdown() throws InterruptedException {
+        create(10);
+        channel.offer(1L, "a");
+
+        queue.shutdown();
+
+        assertEquals(Map.of(1L, "a"), written.get(0));
+        assertFalse(channel.offer(2L, "b"));
+        assertEquals(1, count("write_behind.dropped"));
+    }
+
+    private void create(int maxPending) {
+        WriteBehindProperties properties = new WriteBehindProperties();
+        properties.setFlushInterval(Duration.ofHours(1));
+        properties.setBatchSize(maxPending + 1);
+        properties.setMaxPending(maxPending);
+        @SuppressWarnings("unchecked")
+        ObjectProvider<SecondLevelCacheInvalidator> invalidator = mock(ObjectProvider.class);
+        queue = new WriteBehindQueue(properties, jdbcTemplate, mock(EntityManagerFactory.class), invalidator, meterRegistry);
+        channel = queue.channel(CHANNEL, "UPDATE t SET v = ? WHERE id = ?",
+                (key, value) -> new Object[]{value, key}, (earlier, later) -> earlier + "," + later, null);
+        doAnswer(invocation -> record(invocation.getArgument(1))).when(jdbcTemplate).batchUpdate(anyString(), anyList());
+    }
+
+    /**
+     * 下一次写入失败，失败前执行 {@code duringWrite}
+     */
+    private void failNextWrite(Runnable duringWrite) {
+        // doAnswer 形式重新打桩，不会调用已有的 Answer
+        doAnswer(invocation -> {
+            if (duringWrite != null) {
+                duringWrite.run();
+            }
+            throw new QueryTimeoutException("timeout");
+        }).doAnswer(invocation -> record(invocation.getArgument(1)))
+                .when(jdbcTemplate).batchUpdate(anyString(), anyList());
+    }
+
+    private int[] record(List<Object[]> batch) {
+        Map<Object, Object> values = new HashMap<>();
+        batch.forEach(parameters -> values.put(parameters[1], parameters[0]));
+        written.add(values);
+        return new int[batch.size()];
+    }
+
+    private double count(String meterName) {
+        return meterRegistry.get(meterName).tag("channel", CHANNEL).counter().count();
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.repository;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import com.example.domain.AppConfig;
+import com.example.domain.User;
+import com.example.service.AppConfigService;
+import com.example.service.UserService;
+import com.example.support.QueryPlanGuard;
+import com.example.support.QueryPlanGuard.Violation;
+
+/**
+ * Repository 派生查询的查询计划检查
+ * <p>
+ * 在 MySQL 容器中执行 Flyway 迁移并写入种子数据，记录各派生查询实际发出的 SQL，逐条 EXPLAIN，
+ * 出现扫描行数超过 {@value #ROW_THRESHOLD} 的全表扫描或文件排序即失败。需要本地可用的 Docker，否则跳过。
+ */
+@SpringBootTest
+@Testcontainers(disabledWithoutDocker = true)
+@Import(QueryPlanGuard.Config.class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class RepositoryQueryPlanTest {
+
+    private static final long ROW_THRESHOLD = 100;
+    private static final int USERS = 5_000;
+    private static final int CONFIG_GROUPS = 20;
+    private static final int CONFIGS_PER_GROUP = 100;
+
+    @Container
+    @ServiceConnection
+    static final MySQLContainer<?> MYSQL = new MySQLContainer<>("mysql:8.4");
+
+    @Container
+    @ServiceConnection(name = "redis")
+    static final GenericContainer<?> REDIS = new GenericContainer<>("redis:7-alpine").withExposedPorts(6379);
+
+    @Autowired
+    private QueryPlanGuard queryPlanGuard;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AppConfigRepository appConfigRepository;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private AppConfigService appConfigService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    void seed() {
+        List<User> users = new ArrayList<>(USERS);
+        for (int i = 0; i < USERS; i++) {
+            User user = new User();
+            user.setUsername("qp-user-" + i);
+            user.setEmail("qp-user-" + i + "@example.com");
+            user.setPassword("{noop}password");
+            user.setFullName("Query Plan " + i);
+            // 保留一部分软删除数据，使 deleted = false 条件真实生效
+            if (i % 10 == 0) {
+                user.markDelete("seed");
+            }
+            users.add(user);
+        }
+        userService.bulkInsert(users);
+
+        List<AppConfig> configs = new ArrayList<>(CONFIG_GROUPS * CONFIGS_PER_GROUP);
+        for (int g = 0; g < CONFIG_GROUPS; g++) {
+            for (int k = 0; k < CONFIGS_PER_GROUP; k++) {
+                AppConfig config = new AppConfig();
+                config.setConfigGroup("group-" + g);
+                config.setConfigKey("key-" + g + "-" + k);
+                config.setConfigValue("value");
+                config.setDescription("Query plan config " + k);
+                configs.add(config);
+            }
+        }
+        appConfigService.bulkInsert(configs);
+
+        // 刷新统计信息，避免刚写入的数据导致 EXPLAIN 行数估算失真
+        jdbcTemplate.execute("ANALYZE TABLE users, app_config");
+    }
+
+    @Test
+    void userQueriesUseIndexes() throws SQLException {
+        queryPlanGuard.start();
+        userRepository.existsByUsername("qp-user-42");
+        userRepository.existsByEmail("qp-user-42@example.com");
+        userRepository.findByEmail("qp-user-43@example.com");
+        userRepository.findByUsername("qp-user-44");
+        userRepository.findByUsernameOrEmail("qp-user-45", "qp-user-46@example.com");
+        assertPlans();
+    }
+
+    @Test
+    void configQueriesUseIndexes() throws SQLException {
+        queryPlanGuard.start();
+        appConfigRepository.findByConfigGroupAndConfigKey("group-3", "key-3-7");
+        appConfigRepository.existsByConfigGroupAndConfigKey("group-3", "key-3-8");
+        appConfigRepository.findByConfigGroup("group-4", PageRequest.of(1, 20, Sort.by("configKey")));
+        appConfigRepository.findByConfigGroupOrderByConfigKey("group-5");
+        appConfigRepository.findByConfigKey("key-6-9");
+        assertPlans();
+    }
+
+    private void assertPlans() throws SQLException {
+        List<Violation> violations = queryPlanGuard.explain(ROW_THRESHOLD);
+        assertFalse(queryPlanGuard.getStatements().isEmpty(), "未记录到任何 SQL");
+        assertTrue(violations.isEmpty(), () -> "发现低效查询计划：\n" + violations.stream()
+                .map(Violation::toString)
+                .collect(Collectors.joining("\n")));
+    }
+}
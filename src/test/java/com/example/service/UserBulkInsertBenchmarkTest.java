@@ -0,0 +1,94 @@
+package com.example.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import com.example.domain.User;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 批量插入基准测试，默认跳过，需要显式开启且本地可用 Docker。
+ * <p>
+ * 写入一次性的 MySQL 容器，测试结束后随容器销毁，不会写入应用配置的数据库。
+ * 运行方式：{@code ./gradlew test --tests '*UserBulkInsertBenchmarkTest' -Dbenchmark=true}
+ */
+@Slf4j
+@SpringBootTest
+@Testcontainers(disabledWithoutDocker = true)
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class UserBulkInsertBenchmarkTest {
+
+    private static final int TOTAL = 1_000_000;
+    private static final int BATCH = 10_000;
+    private static final int SAVE_ALL_SAMPLE = 10_000;
+
+    @Container
+    @ServiceConnection
+    static final MySQLContainer<?> MYSQL = new MySQLContainer<>("mysql:8.4")
+            .withUrlParam("rewriteBatchedStatements", "true");
+
+    @Container
+    @ServiceConnection(name = "redis")
+    static final GenericContainer<?> REDIS = new GenericContainer<>("redis:7-alpine").withExposedPorts(6379);
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Test
+    void bulkInsertMillionUsers() {
+        // 所有用户共用一个密码哈希，只测量写入本身的开销
+        String encodedPassword = passwordEncoder.encode("benchmark-password");
+        String runId = UUID.randomUUID().toString().substring(0, 8);
+
+        long start = System.nanoTime();
+        List<User> sample = newUsers(runId + "-s", 0, SAVE_ALL_SAMPLE, encodedPassword);
+        userService.saveAll(sample);
+        double saveAllRate = SAVE_ALL_SAMPLE / seconds(start);
+
+        start = System.nanoTime();
+        int inserted = 0;
+        for (int offset = 0; offset < TOTAL; offset += BATCH) {
+            inserted += userService.bulkInsert(newUsers(runId, offset, BATCH, encodedPassword)).size();
+        }
+        double bulkInsertRate = TOTAL / seconds(start);
+
+        assertEquals(TOTAL, inserted);
+        log.info("saveAll: {} rows/s, bulkInsert: {} rows/s ({}x)",
+                Math.round(saveAllRate), Math.round(bulkInsertRate), Math.round(bulkInsertRate / saveAllRate));
+    }
+
+    private static List<User> newUsers(String prefix, int offset, int count, String encodedPassword) {
+        List<User> users = new ArrayList<>(count);
+        for (int i = offset; i < offset + count; i++) {
+            User user = new User();
+            user.setUsername("bench-%s-%d".formatted(prefix, i));
+            user.setEmail("bench-%s-%d@example.com".formatted(prefix, i));
+            user.setPassword(encodedPassword);
+            user.setFullName("Benchmark " + i);
+            users.add(user);
+        }
+        return users;
+    }
+
+    private static double seconds(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000_000.0;
+    }
+}
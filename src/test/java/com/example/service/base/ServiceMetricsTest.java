@@ -0,0 +1,35 @@
+package com.example.service.base;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * {@link ServiceMetrics#rowsOf} 对各类操作结果的计数
+ */
+class ServiceMetricsTest {
+
+    @Test
+    void countsReturnedEntities() {
+        assertEquals(0, ServiceMetrics.rowsOf(null));
+        assertEquals(0, ServiceMetrics.rowsOf(Optional.empty()));
+        assertEquals(1, ServiceMetrics.rowsOf(Optional.of("entity")));
+        assertEquals(3, ServiceMetrics.rowsOf(List.of(1, 2, 3)));
+        assertEquals(1, ServiceMetrics.rowsOf(new Object()));
+    }
+
+    @Test
+    void countsAffectedRows() {
+        assertEquals(5, ServiceMetrics.rowsOf(5));
+    }
+
+    @Test
+    void ignoresExistsAndCountResults() {
+        assertEquals(0, ServiceMetrics.rowsOf(Boolean.TRUE));
+        assertEquals(0, ServiceMetrics.rowsOf(Boolean.FALSE));
+        assertEquals(0, ServiceMetrics.rowsOf(1_000L));
+    }
+}
@@ -0,0 +1,208 @@
+package com.example.support;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import lombok.extern.slf4j.Slf4j;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+
+/**
+ * 查询计划检查工具，仅用于测试
+ * <p>
+ * 通过 datasource-proxy 包装数据源，记录 {@link #start()} 与 {@link #stop()} 之间执行的每条 SQL 及其首次执行时的参数，
+ * 再用同样的参数在 MySQL 上执行 {@code EXPLAIN}。扫描行数超过阈值的全表扫描（{@code type=ALL}）、
+ * 全索引扫描（{@code type=index}）或文件排序（{@code Using filesort}）视为违规。
+ * <p>
+ * 通过 {@code @Import(QueryPlanGuard.Config.class)} 启用。
+ */
+@Slf4j
+public class QueryPlanGuard implements QueryExecutionListener {
+
+    private static final Pattern LEADING_COMMENTS = Pattern.compile("^(\\s*/\\*.*?\\*/)*\\s*", Pattern.DOTALL);
+
+    /**
+     * 支持 EXPLAIN 的语句类型，INSERT 无需检查
+     */
+    private static final Set<String> EXPLAINABLE = Set.of("select", "update", "delete");
+
+    private static final Set<String> SCAN_TYPES = Set.of("ALL", "index");
+
+    private final Map<String, List<ParameterSetOperation>> statements = new LinkedHashMap<>();
+    private volatile boolean recording;
+    private DataSource dataSource;
+
+    /**
+     * 清空已记录的 SQL 并开始记录
+     */
+    public synchronized void start() {
+        statements.clear();
+        recording = true;
+    }
+
+    /**
+     * 停止记录
+     */
+    public void stop() {
+        recording = false;
+    }
+
+    /**
+     * 已记录的 SQL（去重，按首次执行顺序）
+     */
+    public synchronized List<String> getStatements() {
+        return List.copyOf(statements.keySet());
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        if (!recording) {
+            return;
+        }
+        synchronized (this) {
+            for (QueryInfo queryInfo : queryInfoList) {
+                String sql = queryInfo.getQuery();
+                if (!EXPLAINABLE.contains(statementType(sql))) {
+                    continue;
+                }
+                List<List<ParameterSetOperation>> parameters = queryInfo.getParametersList();
+                statements.putIfAbsent(sql, parameters.isEmpty() ? List.of() : List.copyOf(parameters.get(0)));
+            }
+        }
+    }
+
+    /**
+     * 对已记录的每条 SQL 执行 EXPLAIN，返回所有违规项
+     *
+     * @param rowThreshold 允许扫描的最大行数，估算行数不超过该值的扫描或排序不算违规
+     */
+    public List<Violation> explain(long rowThreshold) throws SQLException {
+        stop();
+        List<Violation> violations = new ArrayList<>();
+        Map<String, List<ParameterSetOperation>> snapshot;
+        synchronized (this) {
+            snapshot = new LinkedHashMap<>(statements);
+        }
+        try (Connection connection = dataSource.getConnection()) {
+            for (Map.Entry<String, List<ParameterSetOperation>> entry : snapshot.entrySet()) {
+                violations.addAll(explain(connection, entry.getKey(), entry.getValue(), rowThreshold));
+            }
+        }
+        return violations;
+    }
+
+    private List<Violation> explain(Connection connection, String sql, List<ParameterSetOperation> parameters,
+                                    long rowThreshold) throws SQLException {
+        List<Violation> violations = new ArrayList<>();
+        try (PreparedStatement ps = connection.prepareStatement("EXPLAIN " + sql)) {
+            for (ParameterSetOperation operation : parameters) {
+                Object[] args = operation.getArgs();
+                int index = (Integer) args[0];
+                if ("setNull".equals(operation.getMethod().getName())) {
+                    ps.setNull(index, (Integer) args[1]);
+                } else {
+                    ps.setObject(index, args[1]);
+                }
+            }
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    String table = rs.getString("table");
+                    String type = rs.getString("type");
+                    String key = rs.getString("key");
+                    long rows = rs.getLong("rows");
+                    String extra = rs.getString("Extra");
+                    log.debug("EXPLAIN - table: {}, type: {}, key: {}, rows: {}, extra: {}", table, type, key, rows, extra);
+
+                    if (rows <= rowThreshold) {
+                        continue;
+                    }
+                    if (type != null && SCAN_TYPES.contains(type)) {
+                        violations.add(new Violation(sql, table, "全表/全索引扫描 (type=" + type + ")", rows));
+                    }
+                    if (extra != null && extra.contains("Using filesort")) {
+                        violations.add(new Violation(sql, table, "文件排序 (Using filesort)", rows));
+                    }
+                }
+            }
+        }
+        return violations;
+    }
+
+    private static String statementType(String sql) {
+        String stripped = LEADING_COMMENTS.matcher(sql).replaceFirst("");
+        int end = 0;
+        while (end < stripped.length() && Character.isLetter(stripped.charAt(end))) {
+            end++;
+        }
+        return stripped.substring(0, end).toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * 查询计划违规项
+     *
+     * @param sql    违规的 SQL
+     * @param table  扫描的表
+     * @param reason 违规原因
+     * @param rows   估算扫描行数
+     */
+    public record Violation(String sql, String table, String reason, long rows) {
+
+        @Override
+        public String toString() {
+            return "%s on `%s`, rows=%d%n  %s".formatted(reason, table, rows, sql);
+        }
+    }
+
+    /**
+     * 用 datasource-proxy 包装应用数据源，并注册 {@link QueryPlanGuard}
+     */
+    @TestConfiguration(proxyBeanMethods = false)
+    public static class Config {
+
+        @Bean
+        QueryPlanGuard queryPlanGuard() {
+            return new QueryPlanGuard();
+        }
+
+        @Bean
+        static BeanPostProcessor queryPlanGuardDataSourcePostProcessor(ObjectProvider<QueryPlanGuard> guard) {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (!(bean instanceof DataSource dataSource) || bean instanceof ProxyDataSource) {
+                        return bean;
+                    }
+                    QueryPlanGuard queryPlanGuard = guard.getObject();
+                    queryPlanGuard.dataSource = dataSource;
+                    return ProxyDataSourceBuilder.create(beanName, dataSource)
+                            .listener(queryPlanGuard)
+                            .build();
+                }
+            };
+        }
+    }
+}